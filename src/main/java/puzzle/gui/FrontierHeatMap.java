@@ -0,0 +1,206 @@
+package puzzle.gui;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.control.Label;
+import javafx.scene.layout.Region;
+import org.tinylog.Logger;
+import puzzle.model.PackedState;
+import puzzle.solver.FrontierSnapshot;
+import puzzle.solver.GoalPredicate;
+import puzzle.solver.PackedBreadthFirstSearch;
+import puzzle.solver.PackedPuzzleSearchProblem;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Visualizes a breadth-first search running in the background. For each
+ * layer of the search, the size of the frontier is displayed in a label of
+ * its own and
+ * the average number of pieces occupying each square in the sampled states
+ * of the layer is displayed as the opacity of an overlay region of the
+ * square.
+ *
+ * <p>The snapshots are received on the thread of the search, which only
+ * stores them in an {@link AtomicReference} polled by the JavaFX application
+ * thread. A new snapshot is requested only after the previous one has been
+ * drawn on a pulse, so the visualization consumes snapshots at the frame
+ * rate, and the search drops the snapshots that are produced in the
+ * meantime.</p>
+ *
+ * <p>The search runs on a dedicated daemon thread rather than on the common
+ * pool, so it never competes with other tasks of the pool. Stopping the
+ * visualization interrupts the thread, and the search gives up at the start
+ * of its next layer, so at most one search runs at a time. The publisher is
+ * closed only by the thread of the search once it has returned, since a
+ * snapshot offered to a closed publisher would fail the search.</p>
+ */
+public class FrontierHeatMap implements Flow.Subscriber<FrontierSnapshot> {
+
+    private static final int BUFFER_SIZE = 1;
+
+    private final Label label;
+
+    private final Region[] cellViews = new Region[PackedState.CELL_COUNT];
+
+    private final AtomicReference<FrontierSnapshot> pending = new AtomicReference<>();
+
+    private final AnimationTimer renderer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            render();
+        }
+    };
+
+    private final ExecutorService searcher = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "frontier-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SubmissionPublisher<FrontierSnapshot> publisher;
+
+    private Future<?> search;
+
+    private volatile Flow.Subscription subscription;
+
+    private volatile boolean completed;
+
+    /**
+     * Creates a {@code FrontierHeatMap} object.
+     *
+     * @param label the label that displays the size of the frontier, which
+     *              is shown only while the visualization is running
+     */
+    public FrontierHeatMap(Label label) {
+        this.label = label;
+        label.setVisible(false);
+    }
+
+    /**
+     * Sets the overlay region of the square specified.
+     *
+     * @param cell the index of a square
+     * @param cellView the overlay region of the square
+     */
+    public void setCellView(int cell, Region cellView) {
+        cellView.setVisible(isRunning());
+        cellView.setOpacity(0);
+        cellViews[cell] = cellView;
+    }
+
+    /**
+     * {@return whether the visualization is running}
+     */
+    public boolean isRunning() {
+        return publisher != null;
+    }
+
+    /**
+     * Starts a search from the packed state specified and visualizes it.
+     *
+     * @param packed the packed start state
+     */
+    public void start(long packed) {
+        stop();
+        completed = false;
+        publisher = new SubmissionPublisher<>(Runnable::run, BUFFER_SIZE);
+        publisher.subscribe(this);
+        for (var cellView : cellViews) {
+            cellView.setVisible(true);
+            cellView.setOpacity(0);
+        }
+        label.setText("");
+        label.setVisible(true);
+        renderer.start();
+        var current = publisher;
+        search = searcher.submit(() -> {
+            try {
+                new PackedBreadthFirstSearch(current)
+                        .search(new PackedPuzzleSearchProblem(packed, GoalPredicate.STANDARD));
+            } catch (CancellationException e) {
+                Logger.debug("Search cancelled");
+            } catch (RuntimeException e) {
+                Logger.error(e, "Search failed");
+            } finally {
+                current.close();
+            }
+        });
+    }
+
+    /**
+     * Stops the visualization, cancels the search and hides the overlay.
+     */
+    public void stop() {
+        if (publisher == null) {
+            return;
+        }
+        search.cancel(true);
+        search = null;
+        renderer.stop();
+        if (subscription != null) {
+            subscription.cancel();
+            subscription = null;
+        }
+        publisher = null; // closed by the cancelled search when it returns
+        pending.set(null);
+        for (var cellView : cellViews) {
+            cellView.setVisible(false);
+        }
+        label.setVisible(false);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(FrontierSnapshot snapshot) {
+        pending.set(snapshot);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Logger.error(throwable, "Frontier snapshots failed");
+        completed = true;
+    }
+
+    @Override
+    public void onComplete() {
+        completed = true;
+    }
+
+    private void render() {
+        var snapshot = pending.getAndSet(null);
+        if (snapshot == null) {
+            if (completed) {
+                renderer.stop();
+            }
+            return;
+        }
+        label.setText(String.format("Depth %d: frontier %d, visited %d",
+                snapshot.depth(), snapshot.frontierSize(), snapshot.visited()));
+        var occupancy = new int[PackedState.CELL_COUNT];
+        for (var packed : snapshot.samples()) {
+            for (var n = 0; n < PackedState.PIECE_COUNT; n++) {
+                occupancy[PackedState.getCell(packed, n)]++;
+            }
+        }
+        var sampleSize = Math.max(1, snapshot.samples().length);
+        for (var cell = 0; cell < cellViews.length; cell++) {
+            cellViews[cell].setOpacity(Math.min(1, (double) occupancy[cell] / sampleSize) * 0.6);
+        }
+        var current = subscription;
+        if (current != null) {
+            current.request(1);
+        }
+    }
+
+}
@@ -1,5 +1,8 @@
 package puzzle.gui;
 
+import javafx.animation.AnimationTimer;
+import javafx.animation.ParallelTransition;
+import javafx.animation.TranslateTransition;
 import javafx.application.Platform;
 import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.IntegerProperty;
@@ -8,27 +11,71 @@ import javafx.beans.value.ObservableValue;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.*;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
+import javafx.util.Duration;
 import org.tinylog.Logger;
 import puzzle.model.Direction;
+import puzzle.model.PackedState;
+import puzzle.model.Position;
 import puzzle.model.PuzzleState;
+import puzzle.solver.DistanceDatabase;
 import puzzle.util.ImageStorage;
+import puzzle.util.LevelPack;
+import puzzle.util.MoveJournal;
 import puzzle.util.OrdinalImageStorage;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Optional;
 
 public class GameController {
 
+    private static final KeyCombination RESTART_KEY_COMBINATION = new KeyCodeCombination(KeyCode.R, KeyCombination.CONTROL_DOWN);
+
+    private static final KeyCombination QUIT_KEY_COMBINATION = new KeyCodeCombination(KeyCode.Q, KeyCombination.CONTROL_DOWN);
+
+    private static final Duration MOVE_DURATION = Duration.millis(120);
+
+    /**
+     * The maximum number of moves waiting in the queue, further moves are
+     * dropped.
+     */
+    private static final int MAX_QUEUED_MOVES = 8;
+
+    /**
+     * If more moves than this are waiting, the running animation is
+     * finished immediately and all but the last waiting moves are performed
+     * without animation.
+     */
+    private static final int FAST_FORWARD_THRESHOLD = 2;
+
     @FXML
     private GridPane grid;
 
     @FXML
     private TextField numberOfMovesField;
 
+    @FXML
+    private Label hintLabel;
+
+    @FXML
+    private Label performanceLabel;
+
+    @FXML
+    private Label frontierLabel;
+
+    private PerformanceHud performanceHud;
+
+    private FrontierHeatMap frontierHeatMap;
+
     private ImageStorage<Integer> imageStorage = new OrdinalImageStorage("/images",
             "block.png",
             "red-shoe.png",
@@ -39,8 +86,29 @@ public class GameController {
 
     private IntegerProperty numberOfMoves = new SimpleIntegerProperty(0);
 
+    private DistanceDatabase distanceDatabase;
+
+    private MoveJournal journal = new MoveJournal(1 << 12, MoveJournal.logSink());
+
+    private ImageView[][] pieceViews = new ImageView[PackedState.PIECE_COUNT][PackedState.CELL_COUNT];
+
+    private Deque<Direction> moveQueue = new ArrayDeque<>();
+
+    private ParallelTransition moveAnimation;
+
+    private AnimationTimer moveQueueDrainer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            drainMoveQueue();
+        }
+    };
+
     @FXML
     private void initialize() {
+        Runtime.getRuntime().addShutdownHook(new Thread(journal::close));
+        loadDistanceDatabase();
+        performanceHud = new PerformanceHud(performanceLabel);
+        frontierHeatMap = new FrontierHeatMap(frontierLabel);
         createControlBindings();
         restartGame();
         populateGrid();
@@ -51,39 +119,76 @@ public class GameController {
         numberOfMovesField.textProperty().bind(numberOfMoves.asString());
     }
 
+    private void loadDistanceDatabase() {
+        try {
+            distanceDatabase = DistanceDatabase.open(DistanceDatabase.getDefaultPath());
+        } catch (IOException e) {
+            Logger.warn(e, "Failed to open distance database, loading the packaged one");
+            distanceDatabase = DistanceDatabase.load();
+        }
+    }
+
     private void restartGame() {
-        state = new PuzzleState();
+        frontierHeatMap.stop();
+        moveQueue.clear();
+        finishMoveAnimation();
+        state = createInitialState();
         numberOfMoves.set(0);
+        hintLabel.setText("");
         populateGrid();
         state.goalProperty().addListener(this::handleGameOver);
     }
 
+    /**
+     * Creates the initial state of the game. If the {@code puzzle.levelPack}
+     * system property specifies the path of a binary level pack, the level
+     * whose index is given by the {@code puzzle.level} system property is
+     * loaded from it.
+     */
+    private PuzzleState createInitialState() {
+        var levelPack = System.getProperty("puzzle.levelPack");
+        if (levelPack != null) {
+            var level = Integer.getInteger("puzzle.level", 0);
+            try (var pack = LevelPack.open(Path.of(levelPack))) {
+                Logger.debug("Loading level {} of {}", level, levelPack);
+                return pack.get(level);
+            } catch (IOException | RuntimeException e) {
+                Logger.error(e, "Failed to load level {} of {}", level, levelPack);
+            }
+        }
+        return new PuzzleState();
+    }
+
     private void registerKeyEventHandler() {
         Platform.runLater(() -> grid.getScene().setOnKeyPressed(this::handleKeyPress));
     }
 
     @FXML
     private void handleKeyPress(KeyEvent keyEvent) {
-        var restartKeyCombination = new KeyCodeCombination(KeyCode.R, KeyCombination.CONTROL_DOWN);
-        var quitKeyCombination = new KeyCodeCombination(KeyCode.Q, KeyCombination.CONTROL_DOWN);
-        if (restartKeyCombination.match(keyEvent)) {
+        performanceHud.markInput();
+        if (RESTART_KEY_COMBINATION.match(keyEvent)) {
             Logger.debug("Restarting game");
             restartGame();
-        } else if (quitKeyCombination.match(keyEvent)) {
+        } else if (QUIT_KEY_COMBINATION.match(keyEvent)) {
             Logger.debug("Exiting");
             Platform.exit();
+        } else if (keyEvent.getCode() == KeyCode.H) {
+            Logger.debug("H pressed");
+            showHint();
+        } else if (keyEvent.getCode() == KeyCode.F3) {
+            Logger.debug("F3 pressed");
+            performanceHud.toggle();
+        } else if (keyEvent.getCode() == KeyCode.V) {
+            Logger.debug("V pressed");
+            toggleFrontierHeatMap();
         } else if (keyEvent.getCode() == KeyCode.UP) {
-            Logger.debug("UP pressed");
-            performMove(Direction.UP);
+            enqueueMove(Direction.UP);
         } else if (keyEvent.getCode() == KeyCode.RIGHT) {
-            Logger.debug("RIGHT pressed");
-            performMove(Direction.RIGHT);
+            enqueueMove(Direction.RIGHT);
         } else if (keyEvent.getCode() == KeyCode.DOWN) {
-            Logger.debug("DOWN pressed");
-            performMove(Direction.DOWN);
+            enqueueMove(Direction.DOWN);
         } else if (keyEvent.getCode() == KeyCode.LEFT) {
-            Logger.debug("LEFT pressed");
-            performMove(Direction.LEFT);
+            enqueueMove(Direction.LEFT);
         }
     }
 
@@ -94,21 +199,112 @@ public class GameController {
         var col = GridPane.getColumnIndex(source);
         Logger.debug("Click on square ({},{})", row, col);
         var direction = getDirectionFromClick(row, col);
-        direction.ifPresentOrElse(this::performMove,
+        direction.ifPresentOrElse(this::enqueueMove,
                 () -> Logger.warn("Click does not correspond to any direction"));
     }
 
-    private void performMove(Direction direction) {
+    private void enqueueMove(Direction direction) {
+        if (moveQueue.size() >= MAX_QUEUED_MOVES) {
+            Logger.debug("Move queue is full, dropping {}", direction);
+            return;
+        }
+        moveQueue.addLast(direction);
+        moveQueueDrainer.start();
+    }
+
+    /**
+     * Performs the queued moves on the pulse. While an animation is running,
+     * the moves wait for it, unless too many of them are waiting, in which
+     * case the animation is finished and the waiting moves are fast-forwarded
+     * with only the last one animated.
+     */
+    private void drainMoveQueue() {
+        if (moveAnimation != null) {
+            if (moveQueue.size() <= FAST_FORWARD_THRESHOLD) {
+                return;
+            }
+            finishMoveAnimation();
+        }
+        while (moveQueue.size() > 1 && !state.isGoal()) {
+            performMove(moveQueue.pollFirst(), false);
+        }
+        if (!moveQueue.isEmpty() && !state.isGoal()) {
+            performMove(moveQueue.pollFirst(), true);
+        }
+        if (state.isGoal()) {
+            moveQueue.clear();
+        }
+        if (moveQueue.isEmpty() && moveAnimation == null) {
+            moveQueueDrainer.stop();
+        }
+    }
+
+    private void performMove(Direction direction, boolean animate) {
         if (state.canMove(direction)) {
-            Logger.info("Moving {}", direction);
+            var movedPieces = PackedState.getMovedPieces(PackedState.pack(state), direction);
             state.move(direction);
-            Logger.trace("New state: {}", state);
+            performanceHud.markMove();
+            journal.record(direction, PackedState.pack(state));
             numberOfMoves.set(numberOfMoves.get() + 1);
+            hintLabel.setText("");
+            frontierHeatMap.stop(); // the visualized search started from an earlier state
+            if (animate) {
+                animateMove(movedPieces, direction);
+            }
         } else {
             Logger.warn("Invalid move: {}", direction);
         }
     }
 
+    private void animateMove(int movedPieces, Direction direction) {
+        moveAnimation = new ParallelTransition();
+        for (var i = 0; i < PackedState.PIECE_COUNT; i++) {
+            if ((movedPieces & (1 << i)) != 0) {
+                var pieceView = pieceViews[i][PackedState.toCell(state.getPosition(i))];
+                var square = pieceView.getParent();
+                square.toFront();
+                var transition = new TranslateTransition(MOVE_DURATION, pieceView);
+                transition.setFromX(-direction.getColChange() * square.getLayoutBounds().getWidth());
+                transition.setFromY(-direction.getRowChange() * square.getLayoutBounds().getHeight());
+                transition.setToX(0);
+                transition.setToY(0);
+                moveAnimation.getChildren().add(transition);
+            }
+        }
+        moveAnimation.setOnFinished(event -> moveAnimation = null);
+        moveAnimation.play();
+    }
+
+    private void finishMoveAnimation() {
+        if (moveAnimation != null) {
+            moveAnimation.stop();
+            for (var animation : moveAnimation.getChildren()) {
+                var pieceView = ((TranslateTransition) animation).getNode();
+                pieceView.setTranslateX(0);
+                pieceView.setTranslateY(0);
+            }
+            moveAnimation = null;
+        }
+    }
+
+    private void showHint() {
+        var distance = distanceDatabase.getDistance(state);
+        if (distance == DistanceDatabase.UNREACHABLE) {
+            hintLabel.setText("Unsolvable, press Ctrl+R");
+        } else {
+            distanceDatabase.getBestMove(state).ifPresent(direction ->
+                    hintLabel.setText(String.format("Hint: %s (%d moves left)", direction, distance)));
+        }
+    }
+
+    private void toggleFrontierHeatMap() {
+        if (frontierHeatMap.isRunning()) {
+            frontierHeatMap.stop();
+        } else {
+            frontierHeatMap.start(PackedState.pack(state));
+        }
+    }
+
     private void handleGameOver(ObservableValue<? extends Boolean> observableValue, Boolean oldValue, Boolean newValue) {
         if (newValue) {
             Platform.runLater(
@@ -141,8 +337,14 @@ public class GameController {
         for (var i = 0; i < 4; i++) {
             var pieceView = new ImageView(imageStorage.get(i));
             pieceView.visibleProperty().bind(createBindingForPieceAtPosition(i, row, col));
+            pieceViews[i][PackedState.toCell(new Position(row, col))] = pieceView;
             square.getChildren().add(pieceView);
         }
+        var heatView = new Region();
+        heatView.getStyleClass().add("heat");
+        heatView.setMouseTransparent(true);
+        frontierHeatMap.setCellView(PackedState.toCell(new Position(row, col)), heatView);
+        square.getChildren().add(heatView);
         square.setOnMouseClicked(this::handleMouseClick);
         return square;
     }
@@ -153,6 +355,10 @@ public class GameController {
                 super.bind(state.positionProperty(n));
             }
             @Override
+            protected void onInvalidating() {
+                performanceHud.countInvalidation();
+            }
+            @Override
             protected boolean computeValue() {
                 var pos = state.positionProperty(n).get();
                 return pos.row() == row && pos.col() == col;
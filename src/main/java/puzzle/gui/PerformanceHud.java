@@ -0,0 +1,190 @@
+package puzzle.gui;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.control.Label;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlay that displays performance metrics of the user interface:
+ * <ul>
+ *     <li>the frame time measured between pulses,</li>
+ *     <li>the latency between a key press and the layout pass preceding the
+ *     rendering of the next frame,</li>
+ *     <li>the number of binding invalidations caused by the last move,</li>
+ *     <li>the heap usage and the number of garbage collections.</li>
+ * </ul>
+ *
+ * <p>While the overlay is hidden, its timer and pulse listener are not
+ * registered, and the hooks called by the controller return immediately.</p>
+ */
+public class PerformanceHud {
+
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final Label label;
+
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+
+    private final Runnable pulseListener = this::handlePostLayoutPulse;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            handlePulse(now);
+        }
+    };
+
+    private boolean showing;
+
+    private long lastPulse;
+    private long lastRefresh;
+    private long maxFrameNanos;
+    private long frameNanosSum;
+    private int frames;
+
+    private long inputTime;
+    private long lastLatencyNanos;
+    private long maxLatencyNanos;
+
+    private long invalidations;
+    private long invalidationsAtLastMove;
+    private long lastMoveInvalidations;
+
+    /**
+     * Creates a {@code PerformanceHud} object.
+     *
+     * @param label the label that displays the metrics
+     */
+    public PerformanceHud(Label label) {
+        this.label = label;
+        label.setVisible(false);
+    }
+
+    /**
+     * {@return whether the overlay is showing}
+     */
+    public boolean isShowing() {
+        return showing;
+    }
+
+    /**
+     * Shows the overlay if it is hidden, and hides it otherwise.
+     */
+    public void toggle() {
+        var scene = label.getScene();
+        showing = !showing;
+        label.setVisible(showing);
+        if (showing) {
+            reset();
+            scene.addPostLayoutPulseListener(pulseListener);
+            timer.start();
+        } else {
+            timer.stop();
+            scene.removePostLayoutPulseListener(pulseListener);
+        }
+    }
+
+    private void reset() {
+        lastPulse = 0;
+        lastRefresh = 0;
+        maxFrameNanos = 0;
+        frameNanosSum = 0;
+        frames = 0;
+        inputTime = 0;
+        lastLatencyNanos = 0;
+        maxLatencyNanos = 0;
+        lastMoveInvalidations = 0;
+        invalidationsAtLastMove = invalidations;
+    }
+
+    /**
+     * Records the time of a key press.
+     */
+    public void markInput() {
+        if (showing && inputTime == 0) {
+            inputTime = System.nanoTime();
+        }
+    }
+
+    /**
+     * Counts a binding invalidation.
+     */
+    public void countInvalidation() {
+        if (showing) {
+            invalidations++;
+        }
+    }
+
+    /**
+     * Records that a move has been performed, attributing the invalidations
+     * counted since the previous move to it.
+     */
+    public void markMove() {
+        if (showing) {
+            lastMoveInvalidations = invalidations - invalidationsAtLastMove;
+            invalidationsAtLastMove = invalidations;
+        }
+    }
+
+    private void handlePostLayoutPulse() {
+        if (inputTime != 0) {
+            lastLatencyNanos = System.nanoTime() - inputTime;
+            maxLatencyNanos = Math.max(maxLatencyNanos, lastLatencyNanos);
+            inputTime = 0;
+        }
+    }
+
+    private void handlePulse(long now) {
+        if (lastPulse != 0) {
+            var frameNanos = now - lastPulse;
+            maxFrameNanos = Math.max(maxFrameNanos, frameNanos);
+            frameNanosSum += frameNanos;
+            frames++;
+        }
+        lastPulse = now;
+        if (now - lastRefresh >= REFRESH_INTERVAL_NANOS) {
+            lastRefresh = now;
+            refresh();
+            maxFrameNanos = 0;
+            frameNanosSum = 0;
+            frames = 0;
+        }
+    }
+
+    private void refresh() {
+        var heap = memoryBean.getHeapMemoryUsage();
+        var gcCount = 0L;
+        var gcTime = 0L;
+        for (var gcBean : gcBeans) {
+            gcCount += Math.max(0, gcBean.getCollectionCount());
+            gcTime += Math.max(0, gcBean.getCollectionTime());
+        }
+        label.setText(String.format("""
+                        frame: %.1f ms avg, %.1f ms max
+                        input→layout: %.1f ms, %.1f ms max
+                        invalidations/move: %d
+                        heap: %d / %d MB
+                        GC: %d (%d ms)""",
+                frames == 0 ? 0.0 : toMillis(frameNanosSum / frames),
+                toMillis(maxFrameNanos),
+                toMillis(lastLatencyNanos),
+                toMillis(maxLatencyNanos),
+                lastMoveInvalidations,
+                heap.getUsed() >> 20,
+                heap.getCommitted() >> 20,
+                gcCount,
+                gcTime));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
+    }
+
+}
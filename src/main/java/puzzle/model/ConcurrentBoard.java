@@ -0,0 +1,182 @@
+package puzzle.model;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents a board that can be observed and moved by multiple threads
+ * concurrently without locking.
+ *
+ * <p>The packed state of the board and a version number are held together
+ * in a single {@link AtomicLong}, the version occupying the bits above the
+ * packed state. A move reads the current value, validates the move against
+ * the rules of the puzzle and installs the new state with a compare-and-set
+ * operation, retrying if another thread has moved in the meantime. Reading
+ * the state is a single volatile read.</p>
+ *
+ * <p>Listeners are notified on the thread that performed the move. Since
+ * moves of different threads may be notified in any order, listeners should
+ * use the version number to discard stale notifications.</p>
+ */
+public class ConcurrentBoard {
+
+    /**
+     * Listener that is notified when the state of the board changes.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Invoked after a move has been performed.
+         *
+         * @param version the version of the board after the move
+         * @param oldState the packed state before the move
+         * @param newState the packed state after the move
+         * @param direction the direction to which the block was moved
+         */
+        void stateChanged(long version, long oldState, long newState, Direction direction);
+
+    }
+
+    private static final int STATE_BITS = PackedState.PIECE_COUNT * PackedState.CELL_BITS;
+
+    private static final long STATE_MASK = (1L << STATE_BITS) - 1;
+
+    private final AtomicLong value;
+
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a {@code ConcurrentBoard} object with the state specified.
+     *
+     * @param state the initial state of the board
+     */
+    public ConcurrentBoard(PuzzleState state) {
+        this(PackedState.pack(state));
+    }
+
+    /**
+     * Creates a {@code ConcurrentBoard} object with the packed state
+     * specified.
+     *
+     * @param packed the initial packed state of the board
+     * @throws IllegalArgumentException if the packed state is invalid
+     */
+    public ConcurrentBoard(long packed) {
+        if (!PackedState.isValid(packed)) {
+            throw new IllegalArgumentException();
+        }
+        value = new AtomicLong(packed);
+    }
+
+    /**
+     * {@return the current packed state of the board}
+     */
+    public long getState() {
+        return value.get() & STATE_MASK;
+    }
+
+    /**
+     * {@return the current version of the board, that is, the number of moves
+     * performed on the board}
+     */
+    public long getVersion() {
+        return value.get() >>> STATE_BITS;
+    }
+
+    /**
+     * {@return a {@code PuzzleState} object that corresponds to the current
+     * state of the board}
+     */
+    public PuzzleState toPuzzleState() {
+        return PackedState.unpack(getState());
+    }
+
+    /**
+     * {@return whether the puzzle is solved}
+     */
+    public boolean isGoal() {
+        return PackedState.isGoal(getState());
+    }
+
+    /**
+     * Moves the block to the direction specified if the move is legal in the
+     * current state of the board.
+     *
+     * @param direction the direction to which the block is moved
+     * @return whether the move was performed
+     */
+    public boolean move(Direction direction) {
+        while (true) {
+            var current = value.get();
+            if (tryMove(current, direction)) {
+                return true;
+            }
+            if (!PackedState.canMove(current & STATE_MASK, direction)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Moves the block to the direction specified if the board is still at the
+     * version specified and the move is legal. Can be used to make sure that
+     * a move is only performed in the state it was chosen for.
+     *
+     * @param version the expected version of the board
+     * @param direction the direction to which the block is moved
+     * @return whether the move was performed
+     */
+    public boolean move(long version, Direction direction) {
+        while (true) {
+            var current = value.get();
+            if (current >>> STATE_BITS != version || !PackedState.canMove(current & STATE_MASK, direction)) {
+                return false;
+            }
+            if (tryMove(current, direction)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean tryMove(long current, Direction direction) {
+        var oldState = current & STATE_MASK;
+        if (!PackedState.canMove(oldState, direction)) {
+            return false;
+        }
+        var newState = PackedState.move(oldState, direction);
+        var version = (current >>> STATE_BITS) + 1;
+        if (!value.compareAndSet(current, version << STATE_BITS | newState)) {
+            return false;
+        }
+        for (var listener : listeners) {
+            listener.stateChanged(version, oldState, newState, direction);
+        }
+        return true;
+    }
+
+    /**
+     * Registers a listener.
+     *
+     * @param listener the listener to be notified about moves
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener to be removed
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public String toString() {
+        var current = value.get();
+        return String.format("%s@%d", PackedState.unpack(current & STATE_MASK), current >>> STATE_BITS);
+    }
+
+}
@@ -0,0 +1,257 @@
+package puzzle.model;
+
+import static puzzle.model.PuzzleState.BLACK_SHOE;
+import static puzzle.model.PuzzleState.BLOCK;
+import static puzzle.model.PuzzleState.BLUE_SHOE;
+import static puzzle.model.PuzzleState.BOARD_SIZE;
+import static puzzle.model.PuzzleState.RED_SHOE;
+
+/**
+ * Provides the rules of the puzzle on states packed into a primitive
+ * {@code long} value. Each piece occupies {@link #CELL_BITS} bits that hold
+ * the index {@code row * BOARD_SIZE + col} of its square, the piece with index
+ * {@code n} being stored at bit offset {@code n * CELL_BITS}. The methods of
+ * this class implement exactly the same rules as {@link PuzzleState}, but the
+ * methods that implement the rules do not allocate any objects.
+ */
+public final class PackedState {
+
+    /**
+     * The number of the pieces.
+     */
+    public static final int PIECE_COUNT = 4;
+
+    /**
+     * The number of bits used to store the position of a piece.
+     */
+    public static final int CELL_BITS = 4;
+
+    /**
+     * The number of squares of the board.
+     */
+    public static final int CELL_COUNT = BOARD_SIZE * BOARD_SIZE;
+
+    /**
+     * An upper bound for packed states, every packed state is a non-negative
+     * value less than this value. It can be used as the size of tables
+     * indexed by packed states.
+     */
+    public static final int STATE_SPACE = 1 << (PIECE_COUNT * CELL_BITS);
+
+    private static final int CELL_MASK = (1 << CELL_BITS) - 1;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    static {
+        if (CELL_COUNT > 1 << CELL_BITS) {
+            throw new ExceptionInInitializerError("Board is too large to be packed");
+        }
+    }
+
+    private PackedState() {
+    }
+
+    /**
+     * {@return the packed representation of the state specified}
+     *
+     * @param state a state of the puzzle
+     */
+    public static long pack(PuzzleState state) {
+        var packed = 0L;
+        for (var i = 0; i < PIECE_COUNT; i++) {
+            packed |= (long) toCell(state.getPosition(i)) << (i * CELL_BITS);
+        }
+        return packed;
+    }
+
+    /**
+     * {@return a {@code PuzzleState} object that corresponds to the packed
+     * state specified}
+     *
+     * @param packed a packed state
+     * @throws IllegalArgumentException if the packed state is invalid
+     */
+    public static PuzzleState unpack(long packed) {
+        var positions = new Position[PIECE_COUNT];
+        for (var i = 0; i < PIECE_COUNT; i++) {
+            positions[i] = getPosition(packed, i);
+        }
+        return new PuzzleState(positions);
+    }
+
+    /**
+     * {@return the index of the square occupied by the piece specified}
+     *
+     * @param packed a packed state
+     * @param n the number of a piece
+     */
+    public static int getCell(long packed, int n) {
+        return (int) (packed >>> (n * CELL_BITS)) & CELL_MASK;
+    }
+
+    /**
+     * {@return the position of the piece specified}
+     *
+     * @param packed a packed state
+     * @param n the number of a piece
+     */
+    public static Position getPosition(long packed, int n) {
+        var cell = getCell(packed, n);
+        return new Position(cell / BOARD_SIZE, cell % BOARD_SIZE);
+    }
+
+    /**
+     * {@return the index of the square at the position specified}
+     *
+     * @param position a position on the board
+     */
+    public static int toCell(Position position) {
+        return position.row() * BOARD_SIZE + position.col();
+    }
+
+    /**
+     * {@return whether the packed state specified represents a state that is
+     * accepted by the constructor of {@link PuzzleState}}
+     *
+     * @param packed a packed state
+     */
+    public static boolean isValid(long packed) {
+        if (packed < 0 || packed >= STATE_SPACE) {
+            return false;
+        }
+        for (var i = 0; i < PIECE_COUNT; i++) {
+            if (getCell(packed, i) >= CELL_COUNT) {
+                return false;
+            }
+        }
+        return getCell(packed, BLUE_SHOE) != getCell(packed, BLACK_SHOE);
+    }
+
+    /**
+     * {@return whether the puzzle is solved in the packed state specified}
+     *
+     * @param packed a packed state
+     */
+    public static boolean isGoal(long packed) {
+        return getCell(packed, RED_SHOE) == getCell(packed, BLUE_SHOE);
+    }
+
+    /**
+     * {@return whether the block can be moved to the direction specified}
+     *
+     * @param packed a packed state
+     * @param direction a direction to which the block is intended to be moved
+     */
+    public static boolean canMove(long packed, Direction direction) {
+        var block = getCell(packed, BLOCK);
+        return switch (direction) {
+            case UP -> block >= BOARD_SIZE && isEmpty(packed, block - BOARD_SIZE);
+            case RIGHT -> canMoveRight(packed, block);
+            case DOWN -> canMoveDown(packed, block);
+            case LEFT -> block % BOARD_SIZE > 0 && isEmpty(packed, block - 1);
+        };
+    }
+
+    private static boolean canMoveRight(long packed, int block) {
+        if (block % BOARD_SIZE == BOARD_SIZE - 1) {
+            return false;
+        }
+        var right = block + 1;
+        return isEmpty(packed, right)
+                || (getCell(packed, BLACK_SHOE) == right && getCell(packed, BLUE_SHOE) != block);
+    }
+
+    private static boolean canMoveDown(long packed, int block) {
+        if (block >= CELL_COUNT - BOARD_SIZE) {
+            return false;
+        }
+        var down = block + BOARD_SIZE;
+        if (isEmpty(packed, down)) {
+            return true;
+        }
+        if (getCell(packed, BLACK_SHOE) == block) {
+            return false;
+        }
+        return getCell(packed, BLUE_SHOE) == down
+                || (getCell(packed, RED_SHOE) == down && getCell(packed, BLUE_SHOE) != block);
+    }
+
+    /**
+     * {@return the set of directions to which the block can be moved as a bit
+     * mask, where the bit {@code 1 << direction.ordinal()} is set for each
+     * legal direction}
+     *
+     * @param packed a packed state
+     */
+    public static int getLegalMoves(long packed) {
+        var legalMoves = 0;
+        for (var direction : DIRECTIONS) {
+            if (canMove(packed, direction)) {
+                legalMoves |= 1 << direction.ordinal();
+            }
+        }
+        return legalMoves;
+    }
+
+    /**
+     * {@return the set of pieces that are moved when the block is moved to
+     * the direction specified as a bit mask, where the bit {@code 1 << n} is
+     * set for each piece with number {@code n}} The bit of the block is always
+     * set.
+     *
+     * @param packed a packed state
+     * @param direction the direction to which the block is moved
+     */
+    public static int getMovedPieces(long packed, Direction direction) {
+        var block = getCell(packed, BLOCK);
+        var moved = 1 << BLOCK;
+        switch (direction) {
+            case UP -> {
+                if (getCell(packed, BLACK_SHOE) == block) {
+                    moved |= 1 << BLACK_SHOE;
+                    if (getCell(packed, RED_SHOE) == block) {
+                        moved |= 1 << RED_SHOE;
+                    }
+                }
+            }
+            case RIGHT, DOWN -> moved |= pieceAt(packed, block, RED_SHOE)
+                    | pieceAt(packed, block, BLUE_SHOE)
+                    | pieceAt(packed, block, BLACK_SHOE);
+            case LEFT -> moved |= pieceAt(packed, block, RED_SHOE) | pieceAt(packed, block, BLUE_SHOE);
+        }
+        return moved;
+    }
+
+    private static int pieceAt(long packed, int cell, int n) {
+        return getCell(packed, n) == cell ? 1 << n : 0;
+    }
+
+    /**
+     * {@return the packed state that results from moving the block to the
+     * direction specified} Like {@link PuzzleState#move(Direction)}, the
+     * method does not check whether the move is legal.
+     *
+     * @param packed a packed state
+     * @param direction the direction to which the block is moved
+     */
+    public static long move(long packed, Direction direction) {
+        var moved = getMovedPieces(packed, direction);
+        var delta = direction.getRowChange() * BOARD_SIZE + direction.getColChange();
+        for (var i = 0; i < PIECE_COUNT; i++) {
+            if ((moved & (1 << i)) != 0) {
+                packed += (long) delta << (i * CELL_BITS);
+            }
+        }
+        return packed;
+    }
+
+    private static boolean isEmpty(long packed, int cell) {
+        for (var i = 0; i < PIECE_COUNT; i++) {
+            if (getCell(packed, i) == cell) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -4,14 +4,21 @@ import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
-import javafx.beans.value.ObservableValue;
 
+import java.util.Arrays;
 import java.util.EnumSet;
-import java.util.Objects;
+import java.util.SplittableRandom;
 import java.util.StringJoiner;
 
 /**
  * Represents the state of the puzzle.
+ *
+ * <p>In addition to the observable positions, a state maintains the square
+ * index of each piece in a compact array and a 64-bit Zobrist key, the XOR of
+ * a random value assigned to each piece and square. Both are updated only for
+ * the pieces that a move carries, so {@link #hashCode()} and
+ * {@link #equals(Object)} neither iterate over the properties nor
+ * allocate.</p>
  */
 public class PuzzleState implements Cloneable {
 
@@ -40,8 +47,27 @@ public class PuzzleState implements Cloneable {
      */
     public static final int BLACK_SHOE = 3;
 
+    /**
+     * The random values of the Zobrist key, indexed by piece and square. A
+     * fixed seed makes the keys reproducible across runs.
+     */
+    private static final long[][] ZOBRIST = new long[4][PackedState.CELL_COUNT];
+
+    static {
+        var random = new SplittableRandom(0x5EED);
+        for (var values : ZOBRIST) {
+            for (var i = 0; i < values.length; i++) {
+                values[i] = random.nextLong();
+            }
+        }
+    }
+
     private ReadOnlyObjectWrapper<Position>[] positions = new ReadOnlyObjectWrapper[4];
 
+    private int[] cells = new int[4];
+
+    private long key;
+
     private ReadOnlyBooleanWrapper goal = new ReadOnlyBooleanWrapper();
 
     /**
@@ -67,6 +93,8 @@ public class PuzzleState implements Cloneable {
         checkPositions(positions);
         for (var i = 0; i < positions.length; i++) {
             this.positions[i] = new ReadOnlyObjectWrapper<>(positions[i]);
+            cells[i] = PackedState.toCell(positions[i]);
+            key ^= ZOBRIST[i][cells[i]];
         }
         goal.bind(this.positions[RED_SHOE].isEqualTo(this.positions[BLUE_SHOE]));
     }
@@ -94,6 +122,13 @@ public class PuzzleState implements Cloneable {
         return positions[n].get();
     }
 
+    /**
+     * {@return the Zobrist key of the state} Equal states have equal keys.
+     */
+    public long getZobristKey() {
+        return key;
+    }
+
     public ReadOnlyObjectProperty<Position> positionProperty(int n) {
         return positions[n].getReadOnlyProperty();
     }
@@ -209,6 +244,9 @@ public class PuzzleState implements Cloneable {
 
     private void movePiece(int n, Direction direction) {
         var newPosition = getPosition(n).getPosition(direction);
+        var newCell = PackedState.toCell(newPosition);
+        key ^= ZOBRIST[n][cells[n]] ^ ZOBRIST[n][newCell];
+        cells[n] = newCell;
         positions[n].set(newPosition);
     }
 
@@ -226,7 +264,7 @@ public class PuzzleState implements Cloneable {
     }
 
     private boolean haveEqualPositions(int i, int j) {
-        return getPosition(i).equals(getPosition(j));
+        return cells[i] == cells[j];
     }
 
     private boolean isOnBoard(Position position) {
@@ -235,8 +273,9 @@ public class PuzzleState implements Cloneable {
     }
 
     private boolean isEmpty(Position position) {
-        for (var p : positions) {
-            if (p.get().equals(position)) {
+        var cell = PackedState.toCell(position);
+        for (var c : cells) {
+            if (c == cell) {
                 return false;
             }
         }
@@ -248,12 +287,12 @@ public class PuzzleState implements Cloneable {
         if (o == this) {
             return true;
         }
-        return (o instanceof PuzzleState other) && equals(positions, other.positions);
+        return (o instanceof PuzzleState other) && key == other.key && Arrays.equals(cells, other.cells);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(positions[0].get(), positions[1].get(), positions[2].get(), positions[3].get());
+        return Long.hashCode(key);
     }
 
     @Override
@@ -270,16 +309,4 @@ public class PuzzleState implements Cloneable {
         return sj.toString();
     }
 
-    private boolean equals(ObservableValue[] a1, ObservableValue[] a2) {
-        if (a1.length != a2.length) {
-            return false;
-        }
-        for (var i = 0; i < a1.length; i++) {
-            if (!a1[i].getValue().equals(a2[i].getValue())) {
-                return false;
-            }
-        }
-        return true;
-    }
-
 }
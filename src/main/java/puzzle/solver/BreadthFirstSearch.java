@@ -1,5 +1,6 @@
 package puzzle.solver;
 
+import puzzle.model.Direction;
 import puzzle.model.PuzzleState;
 
 import java.util.Deque;
@@ -9,15 +10,19 @@ import java.util.Optional;
 
 public class BreadthFirstSearch {
 
-    public Optional<Node> search(PuzzleState state) {
-        Deque<Node> open = new LinkedList<Node>();
-        var seen = new HashSet<Node>();
-        var start = new Node(state);
+    public Optional<Node<PuzzleState, Direction>> search(PuzzleState state) {
+        return search(new PuzzleSearchProblem(state));
+    }
+
+    public <S, A> Optional<Node<S, A>> search(SearchProblem<S, A> problem) {
+        Deque<Node<S, A>> open = new LinkedList<Node<S, A>>();
+        var seen = new HashSet<Node<S, A>>();
+        var start = new Node<>(problem, problem.getInitialState());
         open.add(start);
         seen.add(start);
         while (! open.isEmpty()) {
             var selected = open.pollFirst();
-            if (selected.getState().isGoal()) {
+            if (problem.isGoal(selected.getState())) {
                 return Optional.of(selected);
             }
             while (selected.hasNextChild()) {
@@ -31,7 +36,7 @@ public class BreadthFirstSearch {
         return Optional.empty();
     }
 
-    public void printPathTo(Node node) {
+    public void printPathTo(Node<?, ?> node) {
         node.getParent().ifPresent(this::printPathTo);
         System.out.println(node);
     }
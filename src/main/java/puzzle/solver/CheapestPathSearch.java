@@ -0,0 +1,143 @@
+package puzzle.solver;
+
+import puzzle.model.Direction;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Optional;
+
+/**
+ * Finds a solution of minimum total cost using Dijkstra's algorithm.
+ *
+ * <p>Since move costs are small non-negative integers, the priority queue is
+ * a monotone bucket queue (Dial's algorithm): a circular array of
+ * {@code maxCost + 1} buckets of states, where the bucket of cost
+ * {@code c} is at index {@code c % (maxCost + 1)}. Inserting and removing a
+ * state take constant time, and states are kept as primitive values, so the
+ * search costs about as much as a breadth-first search.</p>
+ */
+public class CheapestPathSearch {
+
+    /**
+     * {@return a cheapest solution of the state specified, or an empty
+     * {@code Optional} if the state can not be solved}
+     *
+     * @param state the start state
+     * @param costModel the cost model of the moves
+     */
+    public Optional<Solution<Direction>> search(PuzzleState state, MoveCostModel costModel) {
+        return search(new PackedPuzzleSearchProblem(PackedState.pack(state), GoalPredicate.STANDARD, costModel));
+    }
+
+    /**
+     * {@return a cheapest solution from the initial state of the problem to a
+     * goal state, or an empty {@code Optional} if there is no such state}
+     *
+     * @param problem the problem to be solved
+     * @param <A> the type of the actions
+     * @throws IllegalStateException if the cost of an action is negative or
+     * greater than {@link LongSearchProblem#getMaxCost()}
+     */
+    public <A> Optional<Solution<A>> search(LongSearchProblem<A> problem) {
+        var start = (int) problem.getInitialState();
+        var costs = new int[problem.getStateSpaceSize()];
+        Arrays.fill(costs, Integer.MAX_VALUE);
+        var parents = new int[problem.getStateSpaceSize()];
+        var actions = new byte[problem.getStateSpaceSize()];
+        var queue = new BucketQueue(problem.getMaxCost() + 1);
+        costs[start] = 0;
+        queue.add(start, 0);
+        while (!queue.isEmpty()) {
+            var cost = queue.getMinCost();
+            var state = queue.poll();
+            if (costs[state] != cost) {
+                continue; // stale entry
+            }
+            if (problem.isGoal(state)) {
+                var moves = new LinkedList<A>();
+                for (var s = state; s != start; s = parents[s]) {
+                    moves.addFirst(problem.getActions().get(actions[s]));
+                }
+                return Optional.of(new Solution<>(state, moves, cost));
+            }
+            for (var legal = problem.getLegalActions(state); legal != 0; legal &= legal - 1) {
+                var action = Integer.numberOfTrailingZeros(legal);
+                var next = (int) problem.apply(state, action);
+                var nextCost = cost + problem.getCost(state, action);
+                if (nextCost < costs[next]) {
+                    costs[next] = nextCost;
+                    parents[next] = state;
+                    actions[next] = (byte) action;
+                    queue.add(next, nextCost);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * A monotone priority queue of packed states with integer priorities,
+     * where the priorities of the elements never exceed the current minimum
+     * by more than the number of buckets minus one.
+     */
+    private static class BucketQueue {
+
+        private final int[][] buckets;
+        private final int[] sizes;
+        private int minCost;
+        private int size;
+
+        BucketQueue(int bucketCount) {
+            buckets = new int[bucketCount][16];
+            sizes = new int[bucketCount];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void add(int state, int cost) {
+            if (cost < minCost || cost - minCost >= buckets.length) {
+                throw new IllegalStateException(String.format(
+                        "Cost %d is outside the range from %d of %d buckets, the action costs exceed getMaxCost()",
+                        cost, minCost, buckets.length));
+            }
+            var i = cost % buckets.length;
+            if (sizes[i] == buckets[i].length) {
+                buckets[i] = Arrays.copyOf(buckets[i], 2 * sizes[i]);
+            }
+            buckets[i][sizes[i]++] = state;
+            size++;
+        }
+
+        /**
+         * {@return the smallest priority in the queue} Must not be called on
+         * an empty queue.
+         */
+        int getMinCost() {
+            while (sizes[minCost % buckets.length] == 0) {
+                minCost++;
+            }
+            return minCost;
+        }
+
+        int poll() {
+            var i = getMinCost() % buckets.length;
+            size--;
+            return buckets[i][--sizes[i]];
+        }
+
+    }
+
+    public static void main(String[] args) {
+        var search = new CheapestPathSearch();
+        search.search(new PuzzleState(), MoveCostModel.perPiece(1, 1, 2, 2)).ifPresentOrElse(
+                solution -> System.out.printf("Solution of cost %d and %d moves: %s%n",
+                        solution.cost(), solution.length(), solution.moves()),
+                () -> System.out.println("No solution found")
+        );
+    }
+
+}
@@ -0,0 +1,302 @@
+package puzzle.solver;
+
+import org.tinylog.Logger;
+import puzzle.model.Direction;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Stores the distance to the nearest goal state and the first move of a
+ * shortest path for every packed state.
+ *
+ * <p>The database can be saved to a versioned file that starts with a header
+ * followed by two bytes for each packed state, the distance and the ordinal
+ * of the best move. The header holds the board size, a fingerprint of the
+ * rules and a CRC-32 checksum of the data. The fingerprint is derived from
+ * the moves and the goal states implemented by {@link PackedState}, so a
+ * database built under other rules is detected without maintaining a version
+ * number by hand. {@link #open(Path)} maps the file
+ * read-only into memory, so it is loaded instantly and its pages are shared
+ * by all processes that use the same file. If the file is missing, corrupt or
+ * was built for another board or other rules, it is
+ * rebuilt from the database packaged as the resource returned by
+ * {@link #getResourceName()}, which is generated during the build. The
+ * database is computed only if the resource is also missing or out of
+ * date.</p>
+ */
+public class DistanceDatabase {
+
+    /**
+     * The value returned by {@link #getDistance(long)} for states from which
+     * no goal state can be reached.
+     */
+    public static final int UNREACHABLE = -1;
+
+    private static final int MAGIC = 0x53504442; // "SPDB"
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+    private static final int ENTRY_SIZE = 2;
+
+    private static final int NONE = 0xFF;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final ByteBuffer data;
+
+    private static class RulesHolder {
+
+        private static final int FINGERPRINT = computeRulesFingerprint();
+
+    }
+
+    private DistanceDatabase(ByteBuffer data) {
+        this.data = data;
+    }
+
+    /**
+     * {@return a database computed in memory}
+     */
+    public static DistanceDatabase compute() {
+        var data = new byte[PackedState.STATE_SPACE * ENTRY_SIZE];
+        Arrays.fill(data, (byte) NONE);
+        var frontier = 0;
+        for (var packed = 0; packed < PackedState.STATE_SPACE; packed++) {
+            if (PackedState.isValid(packed) && PackedState.isGoal(packed)) {
+                data[packed * ENTRY_SIZE] = 0;
+                frontier++;
+            }
+        }
+        // Moves are not reversible, so instead of a backward search the
+        // states are swept until no state gets a distance assigned
+        for (var distance = 0; frontier > 0 && distance < NONE - 1; distance++) {
+            frontier = 0;
+            for (var packed = 0; packed < PackedState.STATE_SPACE; packed++) {
+                if (Byte.toUnsignedInt(data[packed * ENTRY_SIZE]) != NONE || !PackedState.isValid(packed)) {
+                    continue;
+                }
+                for (var direction : DIRECTIONS) {
+                    if (PackedState.canMove(packed, direction)) {
+                        var next = (int) PackedState.move(packed, direction);
+                        if (Byte.toUnsignedInt(data[next * ENTRY_SIZE]) == distance) {
+                            data[packed * ENTRY_SIZE] = (byte) (distance + 1);
+                            data[packed * ENTRY_SIZE + 1] = (byte) direction.ordinal();
+                            frontier++;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return new DistanceDatabase(ByteBuffer.wrap(data).asReadOnlyBuffer());
+    }
+
+    /**
+     * {@return the database stored in the file specified} The file is
+     * rebuilt if it does not exist or it is not valid.
+     *
+     * @param file the path of the database file
+     * @throws IOException if an I/O error occurs
+     */
+    public static DistanceDatabase open(Path file) throws IOException {
+        var database = tryMap(file);
+        if (database.isPresent()) {
+            return database.get();
+        }
+        Logger.info("Building distance database {}", file);
+        load().write(file);
+        return tryMap(file).orElseThrow(() -> new IOException("Invalid distance database: " + file));
+    }
+
+    /**
+     * {@return the database packaged as a resource, or a database computed
+     * in memory if the resource is missing or out of date} The resource is
+     * read into the heap.
+     */
+    public static DistanceDatabase load() {
+        try (var in = DistanceDatabase.class.getResourceAsStream("/" + getResourceName())) {
+            if (in != null) {
+                var database = validate(ByteBuffer.wrap(in.readAllBytes()), getResourceName());
+                if (database.isPresent()) {
+                    return database.get();
+                }
+            }
+        } catch (IOException e) {
+            Logger.warn(e, "Failed to read resource {}", getResourceName());
+        }
+        Logger.info("Computing distance database");
+        return compute();
+    }
+
+    /**
+     * {@return the name of the resource of the database for the current
+     * board size}
+     */
+    public static String getResourceName() {
+        return String.format("distances-%dx%d.db", PuzzleState.BOARD_SIZE, PuzzleState.BOARD_SIZE);
+    }
+
+    /**
+     * {@return the default location of the database file for the current
+     * board size}
+     */
+    public static Path getDefaultPath() {
+        return Path.of(System.getProperty("user.home"), ".javafx-sliding-puzzle", getResourceName());
+    }
+
+    private static Optional<DistanceDatabase> tryMap(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return validate(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file);
+        }
+    }
+
+    private static Optional<DistanceDatabase> validate(ByteBuffer buffer, Object source) {
+        if (buffer.limit() != HEADER_SIZE + PackedState.STATE_SPACE * ENTRY_SIZE) {
+            Logger.warn("Distance database {} has invalid size", source);
+            return Optional.empty();
+        }
+        if (buffer.getInt() != MAGIC
+                || buffer.getInt() != FORMAT_VERSION
+                || buffer.getInt() != getRulesFingerprint()
+                || buffer.getInt() != PuzzleState.BOARD_SIZE
+                || buffer.getInt() != PackedState.STATE_SPACE) {
+            Logger.warn("Distance database {} is out of date", source);
+            return Optional.empty();
+        }
+        var checksum = buffer.getInt();
+        var data = buffer.slice();
+        if (checksum != checksum(data.duplicate())) {
+            Logger.warn("Distance database {} is corrupt", source);
+            return Optional.empty();
+        }
+        return Optional.of(new DistanceDatabase(data.asReadOnlyBuffer()));
+    }
+
+    /**
+     * Writes the database to the file specified. The file is replaced
+     * atomically, so other processes never see a partially written file.
+     *
+     * @param file the path of the database file
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(Path file) throws IOException {
+        var directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        var header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(getRulesFingerprint())
+                .putInt(PuzzleState.BOARD_SIZE)
+                .putInt(PackedState.STATE_SPACE)
+                .putInt(checksum(data.duplicate()))
+                .flip();
+        var temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (var channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                var body = data.duplicate().rewind();
+                while (header.hasRemaining() || body.hasRemaining()) {
+                    channel.write(new ByteBuffer[] {header, body});
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * {@return the fingerprint of the rules} It is the CRC-32 checksum of a
+     * transition table computed from {@link PackedState} followed by a byte
+     * for each packed state that tells whether it is a valid goal state, so
+     * it changes whenever a move or the goal changes. It is computed once.
+     */
+    static int getRulesFingerprint() {
+        return RulesHolder.FINGERPRINT;
+    }
+
+    private static int computeRulesFingerprint() {
+        var goals = new byte[PackedState.STATE_SPACE];
+        for (var packed = 0; packed < PackedState.STATE_SPACE; packed++) {
+            goals[packed] = (byte) (PackedState.isValid(packed) && PackedState.isGoal(packed) ? 1 : 0);
+        }
+        var crc = new CRC32();
+        crc.update(ByteBuffer.allocate(Integer.BYTES).putInt(TransitionTable.compute().getChecksum()).flip());
+        crc.update(goals);
+        return (int) crc.getValue();
+    }
+
+    private static int checksum(ByteBuffer data) {
+        var crc = new CRC32();
+        crc.update(data.rewind());
+        return (int) crc.getValue();
+    }
+
+    /**
+     * {@return the number of moves of a shortest path from the packed state
+     * specified to a goal state, or {@link #UNREACHABLE} if there is no such
+     * path}
+     *
+     * @param packed a packed state
+     */
+    public int getDistance(long packed) {
+        var distance = Byte.toUnsignedInt(data.get((int) packed * ENTRY_SIZE));
+        return distance == NONE ? UNREACHABLE : distance;
+    }
+
+    /**
+     * {@return the number of moves of a shortest path from the state
+     * specified to a goal state, or {@link #UNREACHABLE} if there is no such
+     * path}
+     *
+     * @param state a state of the puzzle
+     */
+    public int getDistance(PuzzleState state) {
+        return getDistance(PackedState.pack(state));
+    }
+
+    /**
+     * {@return the first move of a shortest path from the packed state
+     * specified to a goal state} The result is empty for goal states and
+     * for states from which no goal state can be reached.
+     *
+     * @param packed a packed state
+     */
+    public Optional<Direction> getBestMove(long packed) {
+        var ordinal = Byte.toUnsignedInt(data.get((int) packed * ENTRY_SIZE + 1));
+        return ordinal == NONE ? Optional.empty() : Optional.of(DIRECTIONS[ordinal]);
+    }
+
+    /**
+     * {@return the first move of a shortest path from the state specified to
+     * a goal state} The result is empty for goal states and for states from
+     * which no goal state can be reached.
+     *
+     * @param state a state of the puzzle
+     */
+    public Optional<Direction> getBestMove(PuzzleState state) {
+        return getBestMove(PackedState.pack(state));
+    }
+
+    public static void main(String[] args) throws IOException {
+        var file = args.length > 0 ? Path.of(args[0]) : getDefaultPath();
+        var database = open(file);
+        System.out.printf("Distance of the initial state: %d%n", database.getDistance(new PuzzleState()));
+    }
+
+}
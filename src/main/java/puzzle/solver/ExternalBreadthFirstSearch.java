@@ -0,0 +1,384 @@
+package puzzle.solver;
+
+import puzzle.model.Direction;
+import puzzle.model.PuzzleState;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Breadth-first search that keeps its frontier on disk instead of the heap.
+ *
+ * <p>Each layer of the search is stored in a file as a sorted sequence of
+ * the primitive states of a {@link LongSearchProblem} and is read back
+ * through memory-mapped windows. Duplicate detection is delayed: the
+ * successors of a layer are collected in a fixed-size buffer that is sorted
+ * and written out as a run whenever it fills up, then the runs are merged and
+ * the states that have already been visited are removed. Since moves are not
+ * necessarily reversible, the new layer is checked against all the previous
+ * layers, not just the last two, which are kept merged in a single sorted
+ * file of visited states. The heap usage is therefore bounded by the buffer
+ * size, independently of the size of the state space.</p>
+ *
+ * <p>At most {@code fanIn} runs are merged at once. If a layer produces more
+ * runs, groups of them are merged into longer runs in additional passes until
+ * at most {@code fanIn} are left, so a search never has more than
+ * {@code fanIn + 2} files open and mapped at the same time, independently of
+ * the size of the layers and the depth of the search. The remaining limits
+ * are on disk: the layer files are kept for reconstructing the path and the
+ * visited file holds every visited state too, so the search needs at least
+ * twice the size of the visited states in disk space, plus the runs of the
+ * layer being generated. Since the visited file is rewritten after each
+ * layer, a layer also costs I/O proportional to the number of states visited
+ * so far.</p>
+ *
+ * <p>States are never used as array indices, so any {@code long} value is a
+ * valid state and {@link LongSearchProblem#getStateSpaceSize()} is ignored.</p>
+ */
+public class ExternalBreadthFirstSearch {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private static final int DEFAULT_FAN_IN = 64;
+
+    private static final long MAP_WINDOW = 1L << 26;
+
+    private final Path directory;
+
+    private final int bufferSize;
+
+    private final int fanIn;
+
+    /**
+     * Creates an {@code ExternalBreadthFirstSearch} object that stores its
+     * files in the default temporary-file directory.
+     */
+    public ExternalBreadthFirstSearch() {
+        this(Path.of(System.getProperty("java.io.tmpdir")), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates an {@code ExternalBreadthFirstSearch} object.
+     *
+     * @param directory the directory in which the files of the search are
+     *                  created
+     * @param bufferSize the maximum number of states that are held in memory
+     *                   while generating a layer
+     */
+    public ExternalBreadthFirstSearch(Path directory, int bufferSize) {
+        this(directory, bufferSize, DEFAULT_FAN_IN);
+    }
+
+    /**
+     * Creates an {@code ExternalBreadthFirstSearch} object.
+     *
+     * @param directory the directory in which the files of the search are
+     *                  created
+     * @param bufferSize the maximum number of states that are held in memory
+     *                   while generating a layer
+     * @param fanIn the maximum number of runs that are merged at once, at
+     *              least 2
+     */
+    public ExternalBreadthFirstSearch(Path directory, int bufferSize, int fanIn) {
+        if (bufferSize < 1 || fanIn < 2) {
+            throw new IllegalArgumentException();
+        }
+        this.directory = directory;
+        this.bufferSize = bufferSize;
+        this.fanIn = fanIn;
+    }
+
+    /**
+     * {@return the sequence of moves of a shortest path from the state
+     * specified to a goal state, or an empty {@code Optional} if there is no
+     * such path}
+     *
+     * @param state the start state
+     * @throws IOException if an I/O error occurs
+     */
+    public Optional<List<Direction>> search(PuzzleState state) throws IOException {
+        return search(new PackedPuzzleSearchProblem(state));
+    }
+
+    /**
+     * {@return the sequence of actions of a shortest path from the initial
+     * state of the problem to a goal state, or an empty {@code Optional} if
+     * there is no such path}
+     *
+     * @param problem the problem to be solved
+     * @param <A> the type of the actions
+     * @throws IOException if an I/O error occurs
+     */
+    public <A> Optional<List<A>> search(LongSearchProblem<A> problem) throws IOException {
+        var workDirectory = Files.createTempDirectory(directory, "bfs");
+        var layers = new ArrayList<Path>();
+        var visited = workDirectory.resolve("visited-0");
+        try {
+            var layer = workDirectory.resolve("layer-0");
+            writeRun(layer, new long[] {problem.getInitialState()}, 1);
+            layers.add(layer);
+            writeRun(visited, new long[] {problem.getInitialState()}, 1);
+            while (true) {
+                var goal = findGoal(problem, layer);
+                if (goal.isPresent()) {
+                    return Optional.of(reconstructPath(problem, layers, goal.get()));
+                }
+                layer = workDirectory.resolve("layer-" + layers.size());
+                var size = expand(problem, layers.get(layers.size() - 1), layer, visited);
+                layers.add(layer);
+                if (size == 0) {
+                    return Optional.empty();
+                }
+                var nextVisited = workDirectory.resolve("visited-" + layers.size());
+                merge(List.of(visited, layer), null, nextVisited);
+                Files.delete(visited);
+                visited = nextVisited;
+            }
+        } finally {
+            for (var path : layers) {
+                Files.deleteIfExists(path);
+            }
+            Files.deleteIfExists(visited);
+            Files.deleteIfExists(workDirectory);
+        }
+    }
+
+    private Optional<Long> findGoal(LongSearchProblem<?> problem, Path layer) throws IOException {
+        try (var reader = new LayerReader(layer)) {
+            while (reader.hasNext()) {
+                var state = reader.next();
+                if (problem.isGoal(state)) {
+                    return Optional.of(state);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Generates the layer that follows the layer specified.
+     *
+     * @return the number of states in the new layer
+     */
+    private long expand(LongSearchProblem<?> problem, Path layer, Path target, Path visited) throws IOException {
+        var files = new ArrayList<Path>();
+        try {
+            var runs = new ArrayList<Path>();
+            var buffer = new long[bufferSize];
+            var size = 0;
+            try (var reader = new LayerReader(layer)) {
+                while (reader.hasNext()) {
+                    var state = reader.next();
+                    for (var legal = problem.getLegalActions(state); legal != 0; legal &= legal - 1) {
+                        if (size == buffer.length) {
+                            runs.add(sortAndWriteRun(target, files, buffer, size));
+                            size = 0;
+                        }
+                        buffer[size++] = problem.apply(state, Integer.numberOfTrailingZeros(legal));
+                    }
+                }
+            }
+            if (size > 0) {
+                runs.add(sortAndWriteRun(target, files, buffer, size));
+            }
+            while (runs.size() > fanIn) {
+                var merged = new ArrayList<Path>();
+                for (var from = 0; from < runs.size(); from += fanIn) {
+                    var run = createRun(target, files);
+                    merge(runs.subList(from, Math.min(from + fanIn, runs.size())), null, run);
+                    merged.add(run);
+                }
+                for (var run : runs) {
+                    Files.delete(run);
+                }
+                runs = merged;
+            }
+            return merge(runs, visited, target);
+        } finally {
+            for (var file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private Path sortAndWriteRun(Path target, List<Path> files, long[] buffer, int size) throws IOException {
+        Arrays.sort(buffer, 0, size);
+        var run = createRun(target, files);
+        writeRun(run, buffer, size);
+        return run;
+    }
+
+    /**
+     * Returns the path of a new run of the target layer and adds it to the
+     * files to be deleted.
+     */
+    private Path createRun(Path target, List<Path> files) {
+        var run = target.resolveSibling(target.getFileName() + ".run-" + files.size());
+        files.add(run);
+        return run;
+    }
+
+    private void writeRun(Path path, long[] states, int size) throws IOException {
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            for (var i = 0; i < size; i++) {
+                if (i == 0 || states[i] != states[i - 1]) {
+                    out.writeLong(states[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges the sorted runs into the target file, dropping duplicates and
+     * the states that occur in the sorted file of excluded states.
+     *
+     * @param excluded the file of excluded states, or {@code null}
+     * @return the number of states written
+     */
+    private long merge(List<Path> runs, Path excluded, Path target) throws IOException {
+        var readers = new ArrayList<LayerReader>();
+        try {
+            var queue = new PriorityQueue<LayerReader>(Comparator.comparingLong(LayerReader::peek));
+            for (var run : runs) {
+                var reader = new LayerReader(run);
+                readers.add(reader);
+                if (reader.hasNext()) {
+                    queue.add(reader);
+                }
+            }
+            LayerReader exclusions = null;
+            if (excluded != null) {
+                exclusions = new LayerReader(excluded);
+                readers.add(exclusions);
+            }
+            var count = 0L;
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target)))) {
+                var first = true;
+                var previous = 0L;
+                while (!queue.isEmpty()) {
+                    var reader = queue.poll();
+                    var state = reader.next();
+                    if (reader.hasNext()) {
+                        queue.add(reader);
+                    }
+                    if ((first || state != previous) && (exclusions == null || !contains(exclusions, state))) {
+                        out.writeLong(state);
+                        count++;
+                    }
+                    first = false;
+                    previous = state;
+                }
+            }
+            return count;
+        } finally {
+            for (var reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Advances the reader past the states less than the state specified and
+     * returns whether the next state is the state specified.
+     */
+    private boolean contains(LayerReader reader, long state) throws IOException {
+        while (reader.hasNext() && reader.peek() < state) {
+            reader.next();
+        }
+        return reader.hasNext() && reader.peek() == state;
+    }
+
+    private <A> List<A> reconstructPath(LongSearchProblem<A> problem, List<Path> layers, long goal)
+            throws IOException {
+        var path = new LinkedList<A>();
+        var state = goal;
+        for (var depth = layers.size() - 2; depth >= 0; depth--) {
+            var found = false;
+            try (var reader = new LayerReader(layers.get(depth))) {
+                while (!found && reader.hasNext()) {
+                    var parent = reader.next();
+                    for (var legal = problem.getLegalActions(parent); legal != 0 && !found; legal &= legal - 1) {
+                        var action = Integer.numberOfTrailingZeros(legal);
+                        if (problem.apply(parent, action) == state) {
+                            path.addFirst(problem.getActions().get(action));
+                            state = parent;
+                            found = true;
+                        }
+                    }
+                }
+            }
+            if (!found) {
+                throw new IllegalStateException("Layer " + depth + " has no parent of " + state);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Reads a file of packed states through memory-mapped windows.
+     */
+    private static class LayerReader implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final long size;
+        private long offset;
+        private LongBuffer buffer;
+
+        LayerReader(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            size = channel.size();
+        }
+
+        boolean hasNext() throws IOException {
+            if (buffer != null && buffer.hasRemaining()) {
+                return true;
+            }
+            if (offset >= size) {
+                return false;
+            }
+            var length = Math.min(MAP_WINDOW, size - offset);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length).asLongBuffer();
+            offset += length;
+            return true;
+        }
+
+        long peek() {
+            return buffer.get(buffer.position());
+        }
+
+        long next() throws IOException {
+            if (!hasNext()) {
+                throw new IllegalStateException();
+            }
+            return buffer.get();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+    }
+
+    public static void main(String[] args) throws IOException {
+        var search = new ExternalBreadthFirstSearch();
+        search.search(new PuzzleState()).ifPresentOrElse(
+                path -> System.out.printf("Solution of %d moves: %s%n", path.size(), path),
+                () -> System.out.println("No solution found")
+        );
+    }
+
+}
@@ -0,0 +1,17 @@
+package puzzle.solver;
+
+/**
+ * Represents a layer of a breadth-first search, published while the search
+ * is running.
+ *
+ * <p>The snapshot does not interpret the states of the problem, it only
+ * carries a sample of them, so subscribers that know the problem can decode
+ * them.</p>
+ *
+ * @param depth the depth of the layer
+ * @param frontierSize the number of states in the layer
+ * @param visited the number of states visited so far, including the layer
+ * @param samples evenly spaced states of the layer
+ */
+public record FrontierSnapshot(int depth, int frontierSize, int visited, long[] samples) {
+}
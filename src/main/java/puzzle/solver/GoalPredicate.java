@@ -0,0 +1,95 @@
+package puzzle.solver;
+
+import puzzle.model.PackedState;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+
+import java.util.BitSet;
+
+/**
+ * Decides whether a packed state is a goal state of a search.
+ */
+@FunctionalInterface
+public interface GoalPredicate {
+
+    /**
+     * The goal of the original puzzle, the red shoe being inside the blue
+     * shoe.
+     */
+    GoalPredicate STANDARD = PackedState::isGoal;
+
+    /**
+     * {@return whether the packed state specified is a goal state}
+     *
+     * @param packed a packed state
+     */
+    boolean test(long packed);
+
+    /**
+     * {@return a predicate that is satisfied if both this predicate and the
+     * predicate specified are satisfied}
+     *
+     * @param other another predicate
+     */
+    default GoalPredicate and(GoalPredicate other) {
+        return packed -> test(packed) && other.test(packed);
+    }
+
+    /**
+     * {@return a predicate that is satisfied if this predicate or the
+     * predicate specified is satisfied}
+     *
+     * @param other another predicate
+     */
+    default GoalPredicate or(GoalPredicate other) {
+        return packed -> test(packed) || other.test(packed);
+    }
+
+    /**
+     * {@return a predicate that is satisfied if the piece specified is at the
+     * position specified}
+     *
+     * @param n the number of a piece
+     * @param position a position on the board
+     */
+    static GoalPredicate pieceAt(int n, Position position) {
+        var cell = PackedState.toCell(position);
+        return packed -> PackedState.getCell(packed, n) == cell;
+    }
+
+    /**
+     * {@return a predicate that is satisfied if the two pieces specified are
+     * at the same position, for example, a shoe is inside another shoe}
+     *
+     * @param n the number of a piece
+     * @param m the number of another piece
+     */
+    static GoalPredicate together(int n, int m) {
+        return packed -> PackedState.getCell(packed, n) == PackedState.getCell(packed, m);
+    }
+
+    /**
+     * {@return a predicate that is satisfied by the packed states whose bits
+     * are set in the bit set specified} The bit set is not copied.
+     *
+     * @param targets a bit set indexed by packed states
+     */
+    static GoalPredicate anyOf(BitSet targets) {
+        return packed -> targets.get((int) packed);
+    }
+
+    /**
+     * {@return a bit set indexed by packed states that contains the states
+     * specified}
+     *
+     * @param states some states of the puzzle
+     */
+    static BitSet toTargetSet(PuzzleState... states) {
+        var targets = new BitSet(PackedState.STATE_SPACE);
+        for (var state : states) {
+            targets.set((int) PackedState.pack(state));
+        }
+        return targets;
+    }
+
+}
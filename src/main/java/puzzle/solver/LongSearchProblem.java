@@ -0,0 +1,81 @@
+package puzzle.solver;
+
+import java.util.List;
+
+/**
+ * Represents a search problem whose states are primitive {@code long}
+ * values, which lets solvers store states in primitive arrays without
+ * boxing.
+ *
+ * <p>Actions are identified by their index in the list returned by
+ * {@link #getActions()}, so there can be at most 32 actions. States must be
+ * non-negative values less than {@link #getStateSpaceSize()} to be used with
+ * solvers that index arrays by states.</p>
+ *
+ * @param <A> the type of the actions
+ */
+public interface LongSearchProblem<A> {
+
+    /**
+     * {@return the initial state}
+     */
+    long getInitialState();
+
+    /**
+     * {@return whether the state specified is a goal state}
+     *
+     * @param state a state
+     */
+    boolean isGoal(long state);
+
+    /**
+     * {@return the list of all actions, the index of an action in the list
+     * identifies the action}
+     */
+    List<A> getActions();
+
+    /**
+     * {@return the set of actions that can be applied to the state specified
+     * as a bit mask, where the bit {@code 1 << i} is set if the action with
+     * index {@code i} can be applied}
+     *
+     * @param state a state
+     */
+    int getLegalActions(long state);
+
+    /**
+     * {@return the state that results from applying the action specified to
+     * the state specified}
+     *
+     * @param state a state
+     * @param action the index of an action that can be applied to the state
+     */
+    long apply(long state, int action);
+
+    /**
+     * {@return an upper bound for the states, every state is a non-negative
+     * value less than this value}
+     */
+    int getStateSpaceSize();
+
+    /**
+     * {@return the cost of applying the action specified to the state
+     * specified, which must be a non-negative value not greater than
+     * {@link #getMaxCost()}} The default implementation returns 1.
+     *
+     * @param state a state
+     * @param action the index of an action that can be applied to the state
+     */
+    default int getCost(long state, int action) {
+        return 1;
+    }
+
+    /**
+     * {@return the largest cost of an action} The default implementation
+     * returns 1.
+     */
+    default int getMaxCost() {
+        return 1;
+    }
+
+}
@@ -0,0 +1,77 @@
+package puzzle.solver;
+
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+/**
+ * Assigns a cost to each move depending on which pieces are moved.
+ *
+ * <p>The cost of a move depends on nothing but the set of pieces moved, so
+ * {@link #getMaxCost()} is exact.</p>
+ */
+@FunctionalInterface
+public interface MoveCostModel {
+
+    /**
+     * The cost model where every move costs 1.
+     */
+    MoveCostModel UNIT = movedPieces -> 1;
+
+    /**
+     * {@return the cost of a move that moves the pieces specified, which must
+     * be a non-negative value}
+     *
+     * @param movedPieces the set of the pieces moved as a bit mask, as
+     *                    returned by {@link PackedState#getMovedPieces}
+     */
+    int getCost(int movedPieces);
+
+    /**
+     * {@return the largest cost of a move}
+     */
+    default int getMaxCost() {
+        var maxCost = 0;
+        for (var movedPieces = 0; movedPieces < 1 << PackedState.PIECE_COUNT; movedPieces++) {
+            if ((movedPieces & (1 << PuzzleState.BLOCK)) != 0) {
+                var cost = getCost(movedPieces);
+                if (cost < 0) {
+                    throw new IllegalStateException("Negative move cost");
+                }
+                maxCost = Math.max(maxCost, cost);
+            }
+        }
+        return maxCost;
+    }
+
+    /**
+     * {@return a cost model where the cost of a move is the sum of the costs
+     * of the pieces moved}
+     *
+     * @param blockCost the cost of moving the block
+     * @param redShoeCost the additional cost of moving the red shoe
+     * @param blueShoeCost the additional cost of moving the blue shoe
+     * @param blackShoeCost the additional cost of moving the black shoe
+     */
+    static MoveCostModel perPiece(int blockCost, int redShoeCost, int blueShoeCost, int blackShoeCost) {
+        var costs = new int[PackedState.PIECE_COUNT];
+        costs[PuzzleState.BLOCK] = blockCost;
+        costs[PuzzleState.RED_SHOE] = redShoeCost;
+        costs[PuzzleState.BLUE_SHOE] = blueShoeCost;
+        costs[PuzzleState.BLACK_SHOE] = blackShoeCost;
+        for (var cost : costs) {
+            if (cost < 0) {
+                throw new IllegalArgumentException();
+            }
+        }
+        return movedPieces -> {
+            var cost = 0;
+            for (var i = 0; i < costs.length; i++) {
+                if ((movedPieces & (1 << i)) != 0) {
+                    cost += costs[i];
+                }
+            }
+            return cost;
+        };
+    }
+
+}
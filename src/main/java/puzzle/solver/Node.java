@@ -1,65 +1,75 @@
 package puzzle.solver;
 
-import puzzle.model.Direction;
-import puzzle.model.PuzzleState;
-
-import java.util.EnumSet;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Optional;
 
-public class Node {
+public class Node<S, A> {
 
-    private PuzzleState state;
-    private EnumSet<Direction> operators;
-    private Optional<Node> parent;
-    private Optional<Direction> direction;
+    private SearchProblem<S, A> problem;
+    private S state;
+    private Collection<A> operators;
+    private Optional<Node<S, A>> parent;
+    private Optional<A> direction;
 
-    public Node(PuzzleState state) {
+    public Node(SearchProblem<S, A> problem, S state) {
+        this.problem = problem;
         this.state = state;
         parent = Optional.empty();
         direction = Optional.empty();
-        operators = state.getLegalMoves();
+        operators = problem.getActions(state);
     }
 
-    public Node(PuzzleState state, Node parent, Direction direction) {
-        this(state);
+    public Node(SearchProblem<S, A> problem, S state, Node<S, A> parent, A direction) {
+        this(problem, state);
         this.parent = Optional.of(parent);
         this.direction = Optional.of(direction);
     }
 
-    public PuzzleState getState() {
+    public S getState() {
         return state;
     }
 
-    public Optional<Node> getParent() {
+    public Optional<Node<S, A>> getParent() {
         return parent;
     }
 
-    public Optional<Direction> getDirection() {
+    public Optional<A> getDirection() {
         return direction;
     }
 
+    public List<A> getPath() {
+        var path = new LinkedList<A>();
+        var node = this;
+        while (node.direction.isPresent()) {
+            path.addFirst(node.direction.get());
+            node = node.parent.get();
+        }
+        return path;
+    }
+
     public boolean hasNextChild() {
         return !operators.isEmpty();
     }
 
-    public Optional<Node> nextChild() {
+    public Optional<Node<S, A>> nextChild() {
         if (! hasNextChild()) {
             return Optional.empty();
         }
         var iterator = operators.iterator();
         var direction = iterator.next();
         iterator.remove();
-        var newState = state.clone();
-        newState.move(direction);
-        return Optional.of(new Node(newState, this, direction));
+        var newState = problem.apply(state, direction);
+        return Optional.of(new Node<>(problem, newState, this, direction));
     }
 
     @Override
     public boolean equals(Object o) {
         if (o == this) {
-            return false;
+            return true;
         }
-        return (o instanceof Node other) && state.equals(other.getState());
+        return (o instanceof Node<?, ?> other) && state.equals(other.getState());
     }
 
     @Override
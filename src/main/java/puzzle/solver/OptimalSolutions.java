@@ -0,0 +1,268 @@
+package puzzle.solver;
+
+import puzzle.model.Direction;
+import puzzle.model.PuzzleState;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Counts and enumerates all shortest solutions of a state.
+ *
+ * <p>A breadth-first search assigns a depth to each state up to the first
+ * layer that contains a goal state. The shortest solutions are exactly the
+ * paths of the layered graph, whose edges lead from a state of depth
+ * {@code k} to a state of depth {@code k + 1}, that end in a goal state of
+ * the last layer. The number of such paths from each state is computed by
+ * dynamic programming over the layers in reverse order, with {@code long}
+ * counts that are replaced with {@link BigInteger} counts on overflow. The
+ * solutions are enumerated lazily by a depth-first traversal of the layered
+ * graph that only enters states from which the last layer can be reached, so
+ * only a single path is held in memory at a time.</p>
+ *
+ * @param <A> the type of the actions
+ */
+public class OptimalSolutions<A> {
+
+    private static final int UNVISITED = -1;
+
+    private final LongSearchProblem<A> problem;
+
+    private final int start;
+
+    private final int length;
+
+    private final int[] depths;
+
+    /**
+     * The states of the layers in breadth-first order.
+     */
+    private final int[] order;
+
+    /**
+     * The set of states from which a goal state of the last layer can be
+     * reached within the layered graph.
+     */
+    private final BitSet useful;
+
+    private final BigInteger count;
+
+    /**
+     * {@return the shortest solutions of the state specified with the goal of
+     * the original puzzle}
+     *
+     * @param state the start state
+     */
+    public static OptimalSolutions<Direction> of(PuzzleState state) {
+        return new OptimalSolutions<>(new PackedPuzzleSearchProblem(state));
+    }
+
+    /**
+     * Creates an {@code OptimalSolutions} object.
+     *
+     * @param problem the problem whose shortest solutions are needed
+     */
+    public OptimalSolutions(LongSearchProblem<A> problem) {
+        this.problem = problem;
+        start = (int) problem.getInitialState();
+        depths = new int[problem.getStateSpaceSize()];
+        Arrays.fill(depths, UNVISITED);
+        useful = new BitSet(depths.length);
+        var queue = new int[depths.length];
+        var tail = 0;
+        queue[tail++] = start;
+        depths[start] = 0;
+        var layerStart = 0;
+        var depth = 0;
+        var found = false;
+        while (layerStart < tail) {
+            var layerEnd = tail;
+            for (var i = layerStart; i < layerEnd; i++) {
+                if (problem.isGoal(queue[i])) {
+                    useful.set(queue[i]);
+                    found = true;
+                }
+            }
+            if (found) {
+                tail = layerEnd;
+                break;
+            }
+            for (var i = layerStart; i < layerEnd; i++) {
+                for (var legal = problem.getLegalActions(queue[i]); legal != 0; legal &= legal - 1) {
+                    var next = (int) problem.apply(queue[i], Integer.numberOfTrailingZeros(legal));
+                    if (depths[next] == UNVISITED) {
+                        depths[next] = depth + 1;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            layerStart = layerEnd;
+            depth++;
+        }
+        order = Arrays.copyOf(queue, tail);
+        length = found ? depth : UNVISITED;
+        count = found ? countPaths() : BigInteger.ZERO;
+    }
+
+    private BigInteger countPaths() {
+        try {
+            var counts = new long[depths.length];
+            for (var i = order.length - 1; i >= 0; i--) {
+                var state = order[i];
+                if (depths[state] == length) {
+                    counts[state] = useful.get(state) ? 1 : 0;
+                    continue;
+                }
+                for (var legal = problem.getLegalActions(state); legal != 0; legal &= legal - 1) {
+                    var next = (int) problem.apply(state, Integer.numberOfTrailingZeros(legal));
+                    if (depths[next] == depths[state] + 1) {
+                        counts[state] = Math.addExact(counts[state], counts[next]);
+                    }
+                }
+                useful.set(state, counts[state] > 0);
+            }
+            return BigInteger.valueOf(counts[start]);
+        } catch (ArithmeticException e) {
+            return countPathsExactly();
+        }
+    }
+
+    private BigInteger countPathsExactly() {
+        var counts = new BigInteger[depths.length];
+        for (var i = order.length - 1; i >= 0; i--) {
+            var state = order[i];
+            if (depths[state] == length) {
+                counts[state] = useful.get(state) ? BigInteger.ONE : BigInteger.ZERO;
+                continue;
+            }
+            counts[state] = BigInteger.ZERO;
+            for (var legal = problem.getLegalActions(state); legal != 0; legal &= legal - 1) {
+                var next = (int) problem.apply(state, Integer.numberOfTrailingZeros(legal));
+                if (depths[next] == depths[state] + 1) {
+                    counts[state] = counts[state].add(counts[next]);
+                }
+            }
+            useful.set(state, counts[state].signum() > 0);
+        }
+        return counts[start];
+    }
+
+    /**
+     * {@return the length of the shortest solutions, or -1 if the state can
+     * not be solved}
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * {@return the number of distinct shortest solutions}
+     */
+    public BigInteger count() {
+        return count;
+    }
+
+    /**
+     * {@return a lazy stream of all distinct shortest solutions}
+     */
+    public Stream<List<A>> stream() {
+        if (length == UNVISITED) {
+            return Stream.empty();
+        }
+        var spliterator = Spliterators.spliteratorUnknownSize(new SolutionIterator(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Traverses the layered graph depth-first, keeping the current path on an
+     * explicit stack.
+     */
+    private class SolutionIterator implements Iterator<List<A>> {
+
+        private final int[] states = new int[length + 1];
+        private final int[] remainingActions = new int[length + 1];
+        private final int[] path = new int[length];
+        private int top;
+        private List<A> next;
+
+        SolutionIterator() {
+            states[0] = start;
+            remainingActions[0] = problem.getLegalActions(start);
+            next = length == 0 ? List.of() : advance();
+        }
+
+        /**
+         * Finds the next path that reaches the last layer.
+         *
+         * @return the next solution, or {@code null} if there are no more
+         * solutions
+         */
+        private List<A> advance() {
+            while (top >= 0) {
+                if (top == length) {
+                    top--;
+                    return toActions(path);
+                }
+                var state = states[top];
+                var pushed = false;
+                while (remainingActions[top] != 0 && !pushed) {
+                    var action = Integer.numberOfTrailingZeros(remainingActions[top]);
+                    remainingActions[top] &= remainingActions[top] - 1;
+                    var child = (int) problem.apply(state, action);
+                    if (depths[child] == top + 1 && useful.get(child)) {
+                        path[top] = action;
+                        top++;
+                        states[top] = child;
+                        remainingActions[top] = top < length ? problem.getLegalActions(child) : 0;
+                        pushed = true;
+                    }
+                }
+                if (!pushed) {
+                    top--;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public List<A> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            var result = next;
+            next = length == 0 ? null : advance();
+            return result;
+        }
+
+    }
+
+    private List<A> toActions(int[] path) {
+        var actions = new ArrayList<A>(path.length);
+        for (var action : path) {
+            actions.add(problem.getActions().get(action));
+        }
+        return actions;
+    }
+
+    public static void main(String[] args) {
+        var solutions = OptimalSolutions.of(new PuzzleState());
+        System.out.printf("%s shortest solutions of %d moves%n", solutions.count(), solutions.getLength());
+        solutions.stream().limit(10).forEach(System.out::println);
+    }
+
+}
@@ -0,0 +1,210 @@
+package puzzle.solver;
+
+import puzzle.model.Direction;
+import puzzle.model.PackedState;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.LongPredicate;
+
+/**
+ * Breadth-first search over the primitive states of a
+ * {@link LongSearchProblem}.
+ *
+ * <p>The open queue and the parent links are primitive arrays indexed by
+ * states, so goal tests are evaluated without creating state objects.</p>
+ *
+ * <p>Optionally, a {@link FrontierSnapshot} is published at the start of each
+ * layer, holding at most 1024 evenly spaced states of the layer. The
+ * snapshots are offered without blocking: if a subscriber has not yet
+ * consumed the previous snapshots, the new one is dropped for it, so a slow
+ * subscriber never slows down the search.</p>
+ *
+ * <p>The search checks at the start of each layer whether the current thread
+ * has been interrupted, and if so, it stops by throwing a
+ * {@link CancellationException}, so a search running in the background can
+ * be cancelled with {@link java.util.concurrent.Future#cancel(boolean)}.</p>
+ */
+public class PackedBreadthFirstSearch {
+
+    private static final int UNVISITED = -1;
+
+    private static final int SAMPLE_SIZE = 1024;
+
+    private final SubmissionPublisher<FrontierSnapshot> publisher;
+
+    /**
+     * Creates a {@code PackedBreadthFirstSearch} object.
+     */
+    public PackedBreadthFirstSearch() {
+        this(null);
+    }
+
+    /**
+     * Creates a {@code PackedBreadthFirstSearch} object that publishes
+     * snapshots of its layers.
+     *
+     * @param publisher the publisher of the snapshots, or {@code null}
+     */
+    public PackedBreadthFirstSearch(SubmissionPublisher<FrontierSnapshot> publisher) {
+        this.publisher = publisher;
+    }
+
+    /**
+     * {@return a shortest solution from the state specified to the nearest
+     * state that satisfies the goal predicate, or an empty {@code Optional}
+     * if there is no such state}
+     *
+     * @param state the start state
+     * @param goal the goal predicate
+     */
+    public Optional<Solution<Direction>> search(PuzzleState state, GoalPredicate goal) {
+        return search(new PackedPuzzleSearchProblem(PackedState.pack(state), goal));
+    }
+
+    /**
+     * {@return a shortest solution from the initial state of the problem to
+     * the nearest goal state, or an empty {@code Optional} if there is no
+     * such state}
+     *
+     * @param problem the problem to be solved
+     * @param <A> the type of the actions
+     * @throws CancellationException if the current thread is interrupted
+     */
+    public <A> Optional<Solution<A>> search(LongSearchProblem<A> problem) {
+        var tree = new SearchTree<>(problem, publisher);
+        var found = tree.expandUntil(problem::isGoal);
+        return found == UNVISITED ? Optional.empty() : Optional.of(tree.createSolution(found));
+    }
+
+    /**
+     * {@return shortest solutions from the initial state of the problem to
+     * each reachable target state, in increasing order of their length} The
+     * goal test of the problem is ignored. The search terminates as soon as
+     * all the target states have been reached.
+     *
+     * @param problem the problem to be solved
+     * @param targets a bit set indexed by states that contains the target
+     *                states
+     * @param <A> the type of the actions
+     * @throws CancellationException if the current thread is interrupted
+     */
+    public <A> Map<Long, Solution<A>> searchAll(LongSearchProblem<A> problem, BitSet targets) {
+        var remaining = (BitSet) targets.clone();
+        var solutions = new LinkedHashMap<Long, Solution<A>>();
+        if (remaining.isEmpty()) {
+            return solutions;
+        }
+        var tree = new SearchTree<>(problem, publisher);
+        tree.expandUntil(state -> {
+            if (remaining.get((int) state)) {
+                remaining.clear((int) state);
+                solutions.put(state, tree.createSolution(state));
+            }
+            return remaining.isEmpty();
+        });
+        return solutions;
+    }
+
+    /**
+     * The states visited by a search and their parent links.
+     */
+    private static class SearchTree<A> {
+
+        private final LongSearchProblem<A> problem;
+        private final int start;
+        private final int[] parents;
+        private final byte[] actions;
+        private final SubmissionPublisher<FrontierSnapshot> publisher;
+
+        SearchTree(LongSearchProblem<A> problem, SubmissionPublisher<FrontierSnapshot> publisher) {
+            this.problem = problem;
+            this.publisher = publisher;
+            start = (int) problem.getInitialState();
+            parents = new int[problem.getStateSpaceSize()];
+            actions = new byte[problem.getStateSpaceSize()];
+            Arrays.fill(parents, UNVISITED);
+        }
+
+        /**
+         * Visits the states reachable from the initial state in
+         * breadth-first order until one of them satisfies the predicate.
+         *
+         * @return the state that satisfies the predicate, or {@code UNVISITED}
+         * if there is no such state
+         * @throws CancellationException if the current thread is interrupted
+         */
+        int expandUntil(LongPredicate predicate) {
+            var queue = new int[parents.length];
+            var head = 0;
+            var tail = 0;
+            queue[tail++] = start;
+            parents[start] = start;
+            var depth = 0;
+            var layerEnd = 0;
+            while (head < tail) {
+                if (head == layerEnd) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException("Search interrupted at depth " + depth);
+                    }
+                    layerEnd = tail;
+                    if (publisher != null && publisher.hasSubscribers()) {
+                        publish(queue, head, tail, depth);
+                    }
+                    depth++;
+                }
+                var state = queue[head++];
+                if (predicate.test(state)) {
+                    return state;
+                }
+                for (var legal = problem.getLegalActions(state); legal != 0; legal &= legal - 1) {
+                    var action = Integer.numberOfTrailingZeros(legal);
+                    var next = (int) problem.apply(state, action);
+                    if (parents[next] == UNVISITED) {
+                        parents[next] = state;
+                        actions[next] = (byte) action;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            return UNVISITED;
+        }
+
+        private void publish(int[] queue, int from, int to, int depth) {
+            var step = Math.max(1, (to - from) / SAMPLE_SIZE);
+            var samples = new long[Math.min(SAMPLE_SIZE, (to - from + step - 1) / step)];
+            for (var i = 0; i < samples.length; i++) {
+                samples[i] = queue[from + i * step];
+            }
+            publisher.offer(new FrontierSnapshot(depth, to - from, to, samples), null);
+        }
+
+        Solution<A> createSolution(long goal) {
+            var moves = new LinkedList<A>();
+            for (var state = (int) goal; state != start; state = parents[state]) {
+                moves.addFirst(problem.getActions().get(actions[state]));
+            }
+            return new Solution<>(goal, moves, moves.size());
+        }
+
+    }
+
+    public static void main(String[] args) {
+        var search = new PackedBreadthFirstSearch();
+        var goal = GoalPredicate.pieceAt(PuzzleState.BLOCK, new Position(2, 2))
+                .and(GoalPredicate.together(PuzzleState.RED_SHOE, PuzzleState.BLACK_SHOE));
+        search.search(new PuzzleState(), goal).ifPresentOrElse(
+                solution -> System.out.printf("Solution of %d moves: %s%n", solution.length(), solution.moves()),
+                () -> System.out.println("No solution found")
+        );
+    }
+
+}
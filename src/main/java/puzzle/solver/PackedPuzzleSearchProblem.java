@@ -0,0 +1,104 @@
+package puzzle.solver;
+
+import puzzle.model.Direction;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.util.List;
+
+/**
+ * The sliding puzzle as a search problem over packed states. The moves are
+ * looked up in the shared {@link TransitionTable} instead of being computed.
+ */
+public class PackedPuzzleSearchProblem implements LongSearchProblem<Direction> {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private static final List<Direction> ACTIONS = List.of(DIRECTIONS);
+
+    private final TransitionTable transitions = TransitionTable.getDefault();
+
+    private final long initialState;
+
+    private final GoalPredicate goal;
+
+    private final MoveCostModel costModel;
+
+    private final int maxCost;
+
+    /**
+     * Creates a {@code PackedPuzzleSearchProblem} object with the goal of the
+     * original puzzle where each move costs 1.
+     *
+     * @param initialState the initial state
+     */
+    public PackedPuzzleSearchProblem(PuzzleState initialState) {
+        this(PackedState.pack(initialState), GoalPredicate.STANDARD, MoveCostModel.UNIT);
+    }
+
+    /**
+     * Creates a {@code PackedPuzzleSearchProblem} object where each move
+     * costs 1.
+     *
+     * @param initialState the packed initial state
+     * @param goal the goal predicate
+     */
+    public PackedPuzzleSearchProblem(long initialState, GoalPredicate goal) {
+        this(initialState, goal, MoveCostModel.UNIT);
+    }
+
+    /**
+     * Creates a {@code PackedPuzzleSearchProblem} object.
+     *
+     * @param initialState the packed initial state
+     * @param goal the goal predicate
+     * @param costModel the cost model of the moves
+     */
+    public PackedPuzzleSearchProblem(long initialState, GoalPredicate goal, MoveCostModel costModel) {
+        this.initialState = initialState;
+        this.goal = goal;
+        this.costModel = costModel;
+        maxCost = costModel.getMaxCost();
+    }
+
+    @Override
+    public long getInitialState() {
+        return initialState;
+    }
+
+    @Override
+    public boolean isGoal(long state) {
+        return goal.test(state);
+    }
+
+    @Override
+    public List<Direction> getActions() {
+        return ACTIONS;
+    }
+
+    @Override
+    public int getLegalActions(long state) {
+        return transitions.getLegalMoves(state);
+    }
+
+    @Override
+    public long apply(long state, int action) {
+        return transitions.getSuccessor(state, DIRECTIONS[action]);
+    }
+
+    @Override
+    public int getStateSpaceSize() {
+        return PackedState.STATE_SPACE;
+    }
+
+    @Override
+    public int getCost(long state, int action) {
+        return costModel.getCost(PackedState.getMovedPieces(state, DIRECTIONS[action]));
+    }
+
+    @Override
+    public int getMaxCost() {
+        return maxCost;
+    }
+
+}
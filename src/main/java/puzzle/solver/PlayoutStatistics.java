@@ -0,0 +1,130 @@
+package puzzle.solver;
+
+import java.util.Arrays;
+import java.util.OptionalInt;
+
+/**
+ * Represents the distribution of the solution lengths of random playouts.
+ */
+public class PlayoutStatistics {
+
+    private final long[] histogram;
+    private final long playouts;
+    private final long solved;
+
+    /**
+     * Creates a {@code PlayoutStatistics} object from a histogram of solution
+     * lengths.
+     *
+     * @param histogram an array whose element with index {@code n} is the
+     *                  number of playouts that reached a goal state in exactly
+     *                  {@code n} moves, the last element is the number of
+     *                  playouts that failed to reach a goal state
+     * @throws IllegalArgumentException if the histogram has less than two
+     * elements
+     */
+    public PlayoutStatistics(long[] histogram) {
+        if (histogram.length < 2) {
+            throw new IllegalArgumentException("The histogram must have at least two elements");
+        }
+        this.histogram = histogram.clone();
+        playouts = Arrays.stream(histogram).sum();
+        solved = playouts - histogram[histogram.length - 1];
+    }
+
+    /**
+     * {@return the maximum number of moves of a playout}
+     */
+    public int getMaxMoves() {
+        return histogram.length - 2;
+    }
+
+    /**
+     * {@return the total number of playouts}
+     */
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    /**
+     * {@return the number of playouts that reached a goal state}
+     */
+    public long getSolved() {
+        return solved;
+    }
+
+    /**
+     * {@return the number of playouts that reached a goal state in exactly
+     * the number of moves specified}
+     *
+     * @param moves the number of moves
+     */
+    public long getCount(int moves) {
+        return moves >= 0 && moves <= getMaxMoves() ? histogram[moves] : 0;
+    }
+
+    /**
+     * {@return the mean solution length of the playouts that reached a goal
+     * state, or {@code NaN} if there are no such playouts}
+     */
+    public double getMean() {
+        var sum = 0.0;
+        for (var moves = 0; moves <= getMaxMoves(); moves++) {
+            sum += (double) moves * histogram[moves];
+        }
+        return sum / solved;
+    }
+
+    /**
+     * {@return the smallest number of moves within which at least the
+     * fraction {@code p} of all playouts reached a goal state} The result is
+     * empty if that fraction of the playouts did not reach a goal state at
+     * all.
+     *
+     * @param p a value between 0 and 1
+     * @throws IllegalArgumentException if {@code p} is not between 0 and 1
+     */
+    public OptionalInt getPercentile(double p) {
+        if (!(p >= 0 && p <= 1)) { // also rejects NaN
+            throw new IllegalArgumentException();
+        }
+        var threshold = Math.ceil(p * playouts);
+        var count = 0L;
+        for (var moves = 0; moves <= getMaxMoves(); moves++) {
+            count += histogram[moves];
+            if (count >= threshold && count > 0) {
+                return OptionalInt.of(moves);
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    /**
+     * {@return the probability that a playout reaches a goal state within the
+     * number of moves specified, or {@code NaN} if there are no playouts}
+     *
+     * @param moves the number of moves
+     */
+    public double getSolveProbability(int moves) {
+        var count = 0L;
+        for (var i = 0; i <= Math.min(moves, getMaxMoves()); i++) {
+            count += histogram[i];
+        }
+        return (double) count / playouts;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("playouts=%d, solved=%d, mean=%.2f, median=%s, p90=%s",
+                playouts,
+                solved,
+                getMean(),
+                format(getPercentile(0.5)),
+                format(getPercentile(0.9)));
+    }
+
+    private static String format(OptionalInt value) {
+        return value.isPresent() ? Integer.toString(value.getAsInt()) : "-";
+    }
+
+}
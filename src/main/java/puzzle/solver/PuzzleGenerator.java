@@ -0,0 +1,153 @@
+package puzzle.solver;
+
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Generates random solvable start states whose optimal solution length lies
+ * within a given range.
+ *
+ * <p>The generator indexes all solvable states by their distance to the
+ * nearest goal state using a {@link DistanceDatabase}, so generating a state
+ * is a single random lookup and no candidate has to be solved. States are
+ * drawn uniformly from the states whose distance lies within the range.</p>
+ */
+public class PuzzleGenerator {
+
+    private final long[] states;
+
+    /**
+     * The element with index {@code d} is the index of the first state with
+     * distance {@code d} in {@code states}.
+     */
+    private final int[] offsets;
+
+    /**
+     * Creates a {@code PuzzleGenerator} object.
+     *
+     * @param database the database that provides the distances of the states
+     */
+    public PuzzleGenerator(DistanceDatabase database) {
+        var maxDistance = 0;
+        var count = 0;
+        for (var packed = 0; packed < PackedState.STATE_SPACE; packed++) {
+            var distance = database.getDistance(packed);
+            if (distance != DistanceDatabase.UNREACHABLE) {
+                maxDistance = Math.max(maxDistance, distance);
+                count++;
+            }
+        }
+        offsets = new int[maxDistance + 2];
+        for (var packed = 0; packed < PackedState.STATE_SPACE; packed++) {
+            var distance = database.getDistance(packed);
+            if (distance != DistanceDatabase.UNREACHABLE) {
+                offsets[distance + 1]++;
+            }
+        }
+        for (var d = 1; d < offsets.length; d++) {
+            offsets[d] += offsets[d - 1];
+        }
+        states = new long[count];
+        var next = Arrays.copyOf(offsets, offsets.length);
+        for (var packed = 0; packed < PackedState.STATE_SPACE; packed++) {
+            var distance = database.getDistance(packed);
+            if (distance != DistanceDatabase.UNREACHABLE) {
+                states[next[distance]++] = packed;
+            }
+        }
+    }
+
+    /**
+     * {@return the largest optimal solution length of a solvable state}
+     */
+    public int getMaxDistance() {
+        return offsets.length - 2;
+    }
+
+    /**
+     * {@return the number of distinct states whose optimal solution length
+     * lies within the range specified}
+     *
+     * @param minDistance the minimum optimal solution length
+     * @param maxDistance the maximum optimal solution length
+     */
+    public int count(int minDistance, int maxDistance) {
+        return Math.max(0, end(maxDistance) - start(minDistance));
+    }
+
+    /**
+     * {@return a random packed state whose optimal solution length lies
+     * within the range specified}
+     *
+     * @param minDistance the minimum optimal solution length
+     * @param maxDistance the maximum optimal solution length
+     * @param random the random number generator
+     * @throws IllegalArgumentException if there is no such state
+     */
+    public long generate(int minDistance, int maxDistance, SplittableRandom random) {
+        var start = start(minDistance);
+        var end = end(maxDistance);
+        if (start >= end) {
+            throw new IllegalArgumentException("No state within the distance range");
+        }
+        return states[random.nextInt(start, end)];
+    }
+
+    /**
+     * {@return a random state whose optimal solution length is exactly the
+     * value specified}
+     *
+     * @param distance the optimal solution length
+     * @param seed the seed of the random number generator
+     * @throws IllegalArgumentException if there is no such state
+     */
+    public PuzzleState generate(int distance, long seed) {
+        return PackedState.unpack(generate(distance, distance, new SplittableRandom(seed)));
+    }
+
+    /**
+     * {@return distinct random packed states whose optimal solution length
+     * lies within the range specified}
+     *
+     * @param count the number of states
+     * @param minDistance the minimum optimal solution length
+     * @param maxDistance the maximum optimal solution length
+     * @param seed the seed of the random number generator
+     * @throws IllegalArgumentException if there are not enough such states
+     */
+    public long[] generateDistinct(int count, int minDistance, int maxDistance, long seed) {
+        if (count < 0 || count > count(minDistance, maxDistance)) {
+            throw new IllegalArgumentException("Not enough states within the distance range");
+        }
+        var candidates = Arrays.copyOfRange(states, start(minDistance), end(maxDistance));
+        var random = new SplittableRandom(seed);
+        // Partial Fisher-Yates shuffle
+        for (var i = 0; i < count; i++) {
+            var j = random.nextInt(i, candidates.length);
+            var tmp = candidates[i];
+            candidates[i] = candidates[j];
+            candidates[j] = tmp;
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    private int start(int minDistance) {
+        return offsets[Math.max(0, Math.min(minDistance, offsets.length - 1))];
+    }
+
+    private int end(int maxDistance) {
+        return maxDistance < 0 ? 0 : offsets[Math.min(maxDistance, offsets.length - 2) + 1];
+    }
+
+    public static void main(String[] args) throws IOException {
+        var distance = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        var seed = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        var generator = new PuzzleGenerator(DistanceDatabase.open(DistanceDatabase.getDefaultPath()));
+        System.out.println(generator.generate(distance, seed));
+    }
+
+}
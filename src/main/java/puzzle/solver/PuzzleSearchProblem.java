@@ -0,0 +1,46 @@
+package puzzle.solver;
+
+import puzzle.model.Direction;
+import puzzle.model.PuzzleState;
+
+import java.util.Collection;
+
+/**
+ * The sliding puzzle as a search problem over {@link PuzzleState} objects.
+ */
+public class PuzzleSearchProblem implements SearchProblem<PuzzleState, Direction> {
+
+    private final PuzzleState initialState;
+
+    /**
+     * Creates a {@code PuzzleSearchProblem} object.
+     *
+     * @param initialState the initial state
+     */
+    public PuzzleSearchProblem(PuzzleState initialState) {
+        this.initialState = initialState.clone();
+    }
+
+    @Override
+    public PuzzleState getInitialState() {
+        return initialState;
+    }
+
+    @Override
+    public boolean isGoal(PuzzleState state) {
+        return state.isGoal();
+    }
+
+    @Override
+    public Collection<Direction> getActions(PuzzleState state) {
+        return state.getLegalMoves();
+    }
+
+    @Override
+    public PuzzleState apply(PuzzleState state, Direction action) {
+        var newState = state.clone();
+        newState.move(action);
+        return newState;
+    }
+
+}
@@ -0,0 +1,164 @@
+package puzzle.solver;
+
+import puzzle.model.PuzzleState;
+
+import java.io.Serial;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Estimates the difficulty of a state by performing random playouts in
+ * parallel. In each playout the block is moved to a randomly chosen legal
+ * direction until a goal state is reached, a dead end is reached, or the
+ * maximum number of moves is exceeded.
+ *
+ * <p>The playouts are distributed among fork/join tasks. Each task splits
+ * its own {@link SplittableRandom} before forking, so the random numbers used
+ * by a playout depend only on the seed and not on the scheduling of the
+ * tasks. Thus, the result is deterministic for a given seed.</p>
+ */
+public class RandomPlayoutAnalyzer {
+
+    static final int SEQUENTIAL_THRESHOLD = 1 << 12;
+
+    /**
+     * The largest maximum number of moves, for which the histogram of
+     * {@code maxMoves + 2} elements still fits in an array.
+     */
+    static final int MAX_MOVES_LIMIT = Integer.MAX_VALUE - 10;
+
+    private final int maxMoves;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a {@code RandomPlayoutAnalyzer} object that uses the common
+     * fork/join pool.
+     *
+     * @param maxMoves the maximum number of moves of a playout
+     * @throws IllegalArgumentException if {@code maxMoves} is negative or
+     * too large for a histogram of {@code maxMoves + 2} elements
+     */
+    public RandomPlayoutAnalyzer(int maxMoves) {
+        this(maxMoves, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a {@code RandomPlayoutAnalyzer} object.
+     *
+     * @param maxMoves the maximum number of moves of a playout
+     * @param pool the fork/join pool that executes the playouts
+     * @throws IllegalArgumentException if {@code maxMoves} is negative or
+     * too large for a histogram of {@code maxMoves + 2} elements
+     */
+    public RandomPlayoutAnalyzer(int maxMoves, ForkJoinPool pool) {
+        if (maxMoves < 0 || maxMoves > MAX_MOVES_LIMIT) {
+            throw new IllegalArgumentException("maxMoves must be between 0 and " + MAX_MOVES_LIMIT);
+        }
+        this.maxMoves = maxMoves;
+        this.pool = pool;
+    }
+
+    /**
+     * {@return the statistics of random playouts started from the state
+     * specified}
+     *
+     * @param state the start state of the playouts
+     * @param playouts the number of playouts
+     * @param seed the seed of the random number generator
+     */
+    public PlayoutStatistics analyze(PuzzleState state, long playouts, long seed) {
+        return analyze(new PackedPuzzleSearchProblem(state), playouts, seed);
+    }
+
+    /**
+     * {@return the statistics of random playouts started from the initial
+     * state of the problem specified}
+     *
+     * @param problem the problem to be analyzed
+     * @param playouts the number of playouts
+     * @param seed the seed of the random number generator
+     */
+    public PlayoutStatistics analyze(LongSearchProblem<?> problem, long playouts, long seed) {
+        if (playouts < 0) {
+            throw new IllegalArgumentException();
+        }
+        var task = new PlayoutTask(problem, problem.getInitialState(), maxMoves, playouts, new SplittableRandom(seed));
+        return new PlayoutStatistics(pool.invoke(task));
+    }
+
+    private static class PlayoutTask extends RecursiveTask<long[]> {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final LongSearchProblem<?> problem;
+        private final long start;
+        private final int maxMoves;
+        private final long playouts;
+        private final SplittableRandom random;
+
+        PlayoutTask(LongSearchProblem<?> problem, long start, int maxMoves, long playouts, SplittableRandom random) {
+            this.problem = problem;
+            this.start = start;
+            this.maxMoves = maxMoves;
+            this.playouts = playouts;
+            this.random = random;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (playouts <= SEQUENTIAL_THRESHOLD) {
+                var histogram = new long[maxMoves + 2];
+                for (var i = 0; i < playouts; i++) {
+                    histogram[playout(problem, start, maxMoves, random)]++;
+                }
+                return histogram;
+            }
+            var half = playouts / 2;
+            var left = new PlayoutTask(problem, start, maxMoves, half, random.split());
+            var right = new PlayoutTask(problem, start, maxMoves, playouts - half, random);
+            left.fork();
+            var histogram = right.compute();
+            var leftHistogram = left.join();
+            for (var i = 0; i < histogram.length; i++) {
+                histogram[i] += leftHistogram[i];
+            }
+            return histogram;
+        }
+
+    }
+
+    /**
+     * Performs a single playout.
+     *
+     * @return the number of moves needed to reach a goal state, or
+     * {@code maxMoves + 1} if no goal state was reached
+     */
+    private static int playout(LongSearchProblem<?> problem, long state, int maxMoves, SplittableRandom random) {
+        for (var moves = 0; moves <= maxMoves; moves++) {
+            if (problem.isGoal(state)) {
+                return moves;
+            }
+            var legalMoves = problem.getLegalActions(state);
+            if (legalMoves == 0) {
+                break;
+            }
+            for (var k = random.nextInt(Integer.bitCount(legalMoves)); k > 0; k--) {
+                legalMoves &= legalMoves - 1;
+            }
+            state = problem.apply(state, Integer.numberOfTrailingZeros(legalMoves));
+        }
+        return maxMoves + 1;
+    }
+
+    public static void main(String[] args) {
+        var maxMoves = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        var playouts = args.length > 1 ? Long.parseLong(args[1]) : 1_000_000;
+        var seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        var analyzer = new RandomPlayoutAnalyzer(maxMoves);
+        System.out.println(analyzer.analyze(new PuzzleState(), playouts, seed));
+    }
+
+}
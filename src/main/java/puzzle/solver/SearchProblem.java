@@ -0,0 +1,43 @@
+package puzzle.solver;
+
+import java.util.Collection;
+
+/**
+ * Represents a search problem whose states are objects.
+ *
+ * @param <S> the type of the states
+ * @param <A> the type of the actions
+ */
+public interface SearchProblem<S, A> {
+
+    /**
+     * {@return the initial state}
+     */
+    S getInitialState();
+
+    /**
+     * {@return whether the state specified is a goal state}
+     *
+     * @param state a state
+     */
+    boolean isGoal(S state);
+
+    /**
+     * {@return a new collection of the actions that can be applied to the
+     * state specified} The collection belongs to the caller, which may
+     * remove the actions it has tried.
+     *
+     * @param state a state
+     */
+    Collection<A> getActions(S state);
+
+    /**
+     * {@return the state that results from applying the action specified to
+     * the state specified} The state specified must not be modified.
+     *
+     * @param state a state
+     * @param action an action that can be applied to the state
+     */
+    S apply(S state, A action);
+
+}
@@ -0,0 +1,22 @@
+package puzzle.solver;
+
+import java.util.List;
+
+/**
+ * Represents a solution found by a search.
+ *
+ * @param goal the goal state reached by the solution
+ * @param moves the sequence of actions from the start state to the goal state
+ * @param cost the total cost of the actions
+ * @param <A> the type of the actions
+ */
+public record Solution<A>(long goal, List<A> moves, int cost) {
+
+    /**
+     * {@return the number of actions}
+     */
+    public int length() {
+        return moves.size();
+    }
+
+}
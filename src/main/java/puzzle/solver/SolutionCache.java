@@ -0,0 +1,355 @@
+package puzzle.solver;
+
+import org.tinylog.Logger;
+import puzzle.model.Direction;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Caches the solutions of packed states.
+ *
+ * <p>The cache is an LRU map whose size is bounded by the estimated number
+ * of bytes used by its entries. Optionally, the entries are also appended to
+ * a file by a background thread, and the file is loaded when the cache is
+ * created. A solution is appended only if it differs from the cached one.
+ * After loading, the file is rewritten with the entries that fit into the
+ * cache, so it does not grow beyond the entries of the last session plus
+ * those added since. The file starts with a header holding the board size
+ * and the fingerprint of the rules of {@link DistanceDatabase}, and a file
+ * whose header does not match is discarded, so solutions found under other
+ * rules are never returned. Only solvable states are cached. The cache can be
+ * used from multiple threads concurrently. Entries are appended in the order
+ * in which they are stored in memory, so loading the file restores the
+ * solutions the cache held.</p>
+ */
+public class SolutionCache implements AutoCloseable {
+
+    /**
+     * The estimated number of bytes used by an entry in addition to its
+     * moves.
+     */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private static final int MAGIC = 0x53505343; // "SPSC"
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final long maxBytes;
+
+    private final LinkedHashMap<Long, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final ExecutorService writer;
+
+    private final DataOutputStream out;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates an in-memory {@code SolutionCache} object.
+     *
+     * @param maxBytes the maximum number of bytes used by the entries
+     */
+    public SolutionCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        writer = null;
+        out = null;
+    }
+
+    /**
+     * Creates a {@code SolutionCache} object that is persisted to the file
+     * specified. The entries of the file are loaded, and new entries are
+     * appended to the file by a background thread.
+     *
+     * @param maxBytes the maximum number of bytes used by the entries
+     * @param file the path of the file
+     * @throws IOException if an I/O error occurs
+     */
+    public SolutionCache(long maxBytes, Path file) throws IOException {
+        this.maxBytes = maxBytes;
+        if (Files.exists(file)) {
+            load(file);
+        }
+        compact(file);
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "solution-cache-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void load(Path file) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (!hasValidHeader(in)) {
+                Logger.warn("Discarding solution cache {} of another format or other rules", file);
+                return;
+            }
+            while (true) {
+                long packed;
+                try {
+                    packed = in.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                var moves = new byte[in.readUnsignedShort()];
+                in.readFully(moves);
+                store(packed, moves, false);
+            }
+        } catch (EOFException e) {
+            Logger.warn("Ignoring truncated entry at the end of {}", file);
+        }
+    }
+
+    private static boolean hasValidHeader(DataInputStream in) throws IOException {
+        try {
+            return in.readInt() == MAGIC
+                    && in.readInt() == FORMAT_VERSION
+                    && in.readInt() == PuzzleState.BOARD_SIZE
+                    && in.readInt() == DistanceDatabase.getRulesFingerprint();
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Rewrites the file with a header and the entries currently in the cache,
+     * from the least to the most recently used one, so that loading it again
+     * restores the same order.
+     */
+    private synchronized void compact(Path file) throws IOException {
+        var temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (var tempOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                tempOut.writeInt(MAGIC);
+                tempOut.writeInt(FORMAT_VERSION);
+                tempOut.writeInt(PuzzleState.BOARD_SIZE);
+                tempOut.writeInt(DistanceDatabase.getRulesFingerprint());
+                for (var entry : entries.entrySet()) {
+                    tempOut.writeLong(entry.getKey());
+                    tempOut.writeShort(entry.getValue().length);
+                    tempOut.write(entry.getValue());
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * {@return the cached solution of the packed state specified}
+     *
+     * @param packed a packed state
+     */
+    public Optional<List<Direction>> get(long packed) {
+        byte[] moves;
+        synchronized (this) {
+            moves = entries.get(packed);
+        }
+        if (moves == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(toDirections(moves));
+    }
+
+    /**
+     * Stores the solution of the packed state specified.
+     *
+     * @param packed a packed state
+     * @param solution the sequence of moves that solves the state
+     * @throws IllegalStateException if the cache has been closed
+     */
+    public void put(long packed, List<Direction> solution) {
+        if (closed) {
+            throw new IllegalStateException("Cache is closed");
+        }
+        var moves = new byte[solution.size()];
+        for (var i = 0; i < moves.length; i++) {
+            moves[i] = (byte) solution.get(i).ordinal();
+        }
+        // The append is queued while holding the lock, so the single writer
+        // thread appends the entries in the order in which they are stored
+        synchronized (this) {
+            if (store(packed, moves, true) && writer != null) {
+                try {
+                    writer.execute(() -> append(packed, moves));
+                } catch (RejectedExecutionException e) {
+                    throw new IllegalStateException("Cache is closed", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@return the solution of the packed state specified} If the solution
+     * is not cached, it is computed with the function specified and cached.
+     * The lock of the cache is not held while the function runs, so the same
+     * state may be solved by multiple threads concurrently.
+     *
+     * @param packed a packed state
+     * @param solver a function that computes the solution of a packed state
+     */
+    public Optional<List<Direction>> computeIfAbsent(long packed, LongFunction<Optional<List<Direction>>> solver) {
+        var cached = get(packed);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        var solution = solver.apply(packed);
+        solution.ifPresent(moves -> put(packed, moves));
+        return solution;
+    }
+
+    /**
+     * Stores an entry and evicts the least recently used entries that do not
+     * fit into the cache.
+     *
+     * @return whether the entry differs from the one previously stored for
+     * the state
+     */
+    private synchronized boolean store(long packed, byte[] moves, boolean countEvictions) {
+        var previous = entries.put(packed, moves);
+        if (previous != null) {
+            bytes -= ENTRY_OVERHEAD + previous.length;
+        }
+        bytes += ENTRY_OVERHEAD + moves.length;
+        var iterator = entries.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<Long, byte[]> eldest = iterator.next();
+            iterator.remove();
+            bytes -= ENTRY_OVERHEAD + eldest.getValue().length;
+            if (countEvictions) {
+                evictions.incrementAndGet();
+            }
+        }
+        return previous == null || !Arrays.equals(previous, moves);
+    }
+
+    private void append(long packed, byte[] moves) {
+        try {
+            out.writeLong(packed);
+            out.writeShort(moves.length);
+            out.write(moves);
+        } catch (IOException e) {
+            Logger.error(e, "Failed to persist solution of {}", packed);
+        }
+    }
+
+    private static List<Direction> toDirections(byte[] moves) {
+        var directions = new ArrayList<Direction>(moves.length);
+        for (var move : moves) {
+            directions.add(DIRECTIONS[move]);
+        }
+        return directions;
+    }
+
+    /**
+     * {@return the number of entries}
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * {@return the estimated number of bytes used by the entries}
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * {@return the number of lookups that found a cached solution}
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * {@return the number of lookups that did not find a cached solution}
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * {@return the number of entries evicted to keep the size of the cache
+     * within its limit}
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Writes the pending entries to the file, if any, and closes it. No
+     * solutions can be stored after the cache has been closed.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(1, TimeUnit.MINUTES)) {
+                Logger.warn("Timed out writing pending solutions");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("entries=%d, bytes=%d, hits=%d, misses=%d, evictions=%d",
+                size(), getBytes(), getHitCount(), getMissCount(), getEvictionCount());
+    }
+
+    public static void main(String[] args) throws IOException {
+        var bfs = new BreadthFirstSearch();
+        try (var cache = new SolutionCache(1 << 20)) {
+            for (var i = 0; i < 3; i++) {
+                cache.computeIfAbsent(PackedState.pack(new PuzzleState()),
+                        packed -> bfs.search(new PuzzleSearchProblem(PackedState.unpack(packed))).map(Node::getPath));
+            }
+            System.out.println(cache);
+        }
+    }
+
+}
@@ -0,0 +1,316 @@
+package puzzle.solver;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.tinylog.Logger;
+import puzzle.model.PackedState;
+import puzzle.util.LevelPack;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Long-running solver service that listens on the loopback interface.
+ *
+ * <ul>
+ *     <li>{@code POST /solve} expects a start state per line in the format of
+ *     {@link puzzle.model.PuzzleState#toString()} and responds with a line per
+ *     state: the length of a shortest solution followed by its moves, or
+ *     {@code -1} if the state is unsolvable, or {@code ERROR} followed by a
+ *     message if the line is not a valid state.</li>
+ *     <li>{@code GET /stats} responds with the request counters and the
+ *     median and 99th percentile of the request latency.</li>
+ * </ul>
+ *
+ * <p>Requests are not solved on the threads of the HTTP server. A handler
+ * thread only parses the request and puts it into a bounded queue, without
+ * waiting for the response. A single solver thread takes all the waiting
+ * requests at once and solves them as a batch, looking up each distinct state
+ * of the batch only once in the shared {@link DistanceDatabase}. The
+ * responses are then sent on the handler threads. The bounded queue is the
+ * only place where accepted requests wait, so it also limits how much
+ * work is admitted: if it is full, the request is rejected with status 503,
+ * and clients back off instead of piling up work.</p>
+ */
+public class SolverServer implements AutoCloseable {
+
+    private static final int DEFAULT_PORT = 8765;
+
+    static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private static final int MAX_BATCH_SIZE = 64;
+
+    private static final int LATENCY_SAMPLES = 4096;
+
+    private static final long INVALID = -1;
+
+    private final LongFunction<String> solver;
+
+    private final HttpServer server;
+
+    private final ExecutorService handlers;
+
+    private final BlockingQueue<Request> queue;
+
+    private final Thread batcher;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedRequests = new AtomicLong();
+
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private long latencyCount;
+
+    private record Request(long[] states, long startTime, CompletableFuture<String> response) {
+    }
+
+    /**
+     * Creates and starts a {@code SolverServer} object with the default queue
+     * capacity and a handler thread per available processor.
+     *
+     * @param database the database used to solve the states
+     * @param port the port number, or 0 to use an ephemeral port
+     * @throws IOException if the server cannot be bound to the port
+     */
+    public SolverServer(DistanceDatabase database, int port) throws IOException {
+        this(database, port, DEFAULT_QUEUE_CAPACITY, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates and starts a {@code SolverServer} object.
+     *
+     * @param database the database used to solve the states
+     * @param port the port number, or 0 to use an ephemeral port
+     * @param queueCapacity the maximum number of requests waiting to be
+     *                      solved
+     * @param handlerThreads the number of threads handling the connections
+     * @throws IOException if the server cannot be bound to the port
+     */
+    public SolverServer(DistanceDatabase database, int port, int queueCapacity, int handlerThreads)
+            throws IOException {
+        this(packed -> solve(database, packed), port, queueCapacity, handlerThreads);
+    }
+
+    /**
+     * Creates and starts a {@code SolverServer} object that solves the states
+     * with the function specified.
+     *
+     * @param solver a function that returns the response line of a packed
+     *               state, or of {@code -1} for an invalid state
+     * @param port the port number, or 0 to use an ephemeral port
+     * @param queueCapacity the maximum number of requests waiting to be
+     *                      solved
+     * @param handlerThreads the number of threads handling the connections
+     * @throws IOException if the server cannot be bound to the port
+     */
+    SolverServer(LongFunction<String> solver, int port, int queueCapacity, int handlerThreads) throws IOException {
+        this.solver = solver;
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        handlers = Executors.newFixedThreadPool(handlerThreads);
+        server.setExecutor(handlers);
+        server.createContext("/solve", this::handleSolve);
+        server.createContext("/stats", this::handleStats);
+        batcher = new Thread(this::solveBatches, "solver-batcher");
+        batcher.setDaemon(true);
+        batcher.start();
+        server.start();
+        Logger.info("Solver service listening on {}", server.getAddress());
+    }
+
+    /**
+     * {@return the port number the server is listening on}
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Queues the request and returns without waiting for the response, which
+     * is sent when the batch containing the request has been solved.
+     */
+    private void handleSolve(HttpExchange exchange) throws IOException {
+        var startTime = System.nanoTime();
+        if (!exchange.getRequestMethod().equals("POST")) {
+            try (exchange) {
+                send(exchange, 405, "Method not allowed\n");
+            }
+            return;
+        }
+        requests.incrementAndGet();
+        var request = new Request(parse(exchange.getRequestBody()), startTime, new CompletableFuture<>());
+        if (!queue.offer(request)) {
+            rejected.incrementAndGet();
+            try (exchange) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 503, "Too many pending requests\n");
+            }
+            return;
+        }
+        request.response().whenCompleteAsync((response, e) -> respond(exchange, request, response, e), handlers);
+    }
+
+    private void respond(HttpExchange exchange, Request request, String response, Throwable e) {
+        try (exchange) {
+            if (e != null) {
+                Logger.error(e, "Failed to solve request");
+                send(exchange, 500, "Failed to solve request\n");
+            } else {
+                send(exchange, 200, response);
+                recordLatency(System.nanoTime() - request.startTime());
+            }
+        } catch (IOException ioe) {
+            Logger.warn(ioe, "Failed to send response");
+        }
+    }
+
+    private static long[] parse(InputStream in) throws IOException {
+        var lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()
+                .map(String::strip)
+                .filter(line -> !line.isEmpty())
+                .toList();
+        var states = new long[lines.size()];
+        for (var i = 0; i < states.length; i++) {
+            try {
+                states[i] = PackedState.pack(LevelPack.parse(lines.get(i)));
+            } catch (IllegalArgumentException e) {
+                states[i] = INVALID;
+            }
+        }
+        return states;
+    }
+
+    private void solveBatches() {
+        var batch = new ArrayList<Request>(MAX_BATCH_SIZE);
+        var solutions = new HashMap<Long, String>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+            batches.incrementAndGet();
+            batchedRequests.addAndGet(batch.size());
+            for (var request : batch) {
+                try {
+                    var sb = new StringBuilder();
+                    for (var state : request.states()) {
+                        sb.append(solutions.computeIfAbsent(state, solver::apply)).append('\n');
+                    }
+                    request.response().complete(sb.toString());
+                } catch (RuntimeException e) {
+                    request.response().completeExceptionally(e);
+                }
+            }
+            batch.clear();
+            solutions.clear();
+        }
+    }
+
+    private static String solve(DistanceDatabase database, long packed) {
+        if (packed == INVALID) {
+            return "ERROR invalid state";
+        }
+        var distance = database.getDistance(packed);
+        var sj = new StringJoiner(" ");
+        sj.add(Integer.toString(distance));
+        for (var i = 0; i < distance; i++) {
+            var direction = database.getBestMove(packed).orElseThrow();
+            sj.add(direction.name());
+            packed = PackedState.move(packed, direction);
+        }
+        return sj.toString();
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencies[(int) (latencyCount++ % LATENCY_SAMPLES)] = nanos;
+    }
+
+    /**
+     * {@return the percentile specified of the latency of the most recent
+     * requests in milliseconds, or 0 if there were no requests}
+     *
+     * @param percentile a percentile between 0 and 100
+     */
+    public double getLatencyPercentile(double percentile) {
+        long[] samples;
+        synchronized (this) {
+            samples = Arrays.copyOf(latencies, (int) Math.min(latencyCount, LATENCY_SAMPLES));
+        }
+        if (samples.length == 0) {
+            return 0;
+        }
+        Arrays.sort(samples);
+        var index = (int) Math.ceil(percentile / 100 * samples.length) - 1;
+        return samples[Math.max(0, index)] / 1e6;
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            var batchCount = batches.get();
+            send(exchange, 200, String.format("""
+                            requests: %d
+                            rejected: %d
+                            batches: %d
+                            average batch size: %.2f
+                            p50 latency: %.3f ms
+                            p99 latency: %.3f ms
+                            """,
+                    requests.get(),
+                    rejected.get(),
+                    batchCount,
+                    batchCount == 0 ? 0.0 : (double) batchedRequests.get() / batchCount,
+                    getLatencyPercentile(50),
+                    getLatencyPercentile(99)));
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /**
+     * {@return the number of requests rejected because the queue was full}
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Stops the server. Requests that are still waiting are not answered.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        batcher.interrupt();
+        handlers.shutdownNow();
+    }
+
+    public static void main(String[] args) throws IOException {
+        var port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        var database = DistanceDatabase.open(DistanceDatabase.getDefaultPath());
+        var server = new SolverServer(database, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    }
+
+}
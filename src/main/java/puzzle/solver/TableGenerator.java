@@ -0,0 +1,30 @@
+package puzzle.solver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Generates the resources of the precomputed tables. It is run by the build
+ * in the {@code process-classes} phase, so the tables are packaged with the
+ * classes and are not computed at startup.
+ */
+public class TableGenerator {
+
+    /**
+     * Writes the transition table and the distance database to the
+     * directory specified.
+     *
+     * @param args the path of the output directory
+     * @throws IOException if an I/O error occurs
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: TableGenerator <output directory>");
+            System.exit(1);
+        }
+        var directory = Path.of(args[0]);
+        TransitionTable.compute().write(directory.resolve(TransitionTable.getResourceName()));
+        DistanceDatabase.compute().write(directory.resolve(DistanceDatabase.getResourceName()));
+    }
+
+}
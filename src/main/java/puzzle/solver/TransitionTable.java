@@ -0,0 +1,205 @@
+package puzzle.solver;
+
+import org.tinylog.Logger;
+import puzzle.model.Direction;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Stores the successor of every packed state for every direction.
+ *
+ * <p>The table is generated during the build and packaged as the resource
+ * returned by {@link #getResourceName()}, which consists of a header holding
+ * the board size and a CRC-32 checksum, followed by
+ * a {@code char} value for each packed state and direction. {@link #load()}
+ * reads the resource into a primitive array and falls back to computing the
+ * table if the resource is missing or out of date. The table shared by the
+ * packed search problems is returned by {@link #getDefault()}.</p>
+ */
+public class TransitionTable {
+
+    /**
+     * The value returned by {@link #getSuccessor(long, Direction)} for
+     * illegal moves.
+     */
+    public static final int NONE = -1;
+
+    private static final int MAGIC = 0x53505454; // "SPTT"
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+    private static final int DIRECTION_COUNT = Direction.values().length;
+
+    /**
+     * Marks illegal moves in the table. It is never a valid packed state,
+     * since every piece would be outside the board.
+     */
+    private static final char ILLEGAL = (char) (PackedState.STATE_SPACE - 1);
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final char[] successors;
+
+    private TransitionTable(char[] successors) {
+        this.successors = successors;
+    }
+
+    private static class DefaultHolder {
+
+        private static final TransitionTable DEFAULT = load();
+
+    }
+
+    /**
+     * {@return the table loaded by {@link #load()}} The table is loaded on
+     * the first call and shared afterwards.
+     */
+    public static TransitionTable getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * {@return a table computed in memory}
+     */
+    public static TransitionTable compute() {
+        var successors = new char[PackedState.STATE_SPACE * DIRECTION_COUNT];
+        Arrays.fill(successors, ILLEGAL);
+        for (var packed = 0; packed < PackedState.STATE_SPACE; packed++) {
+            if (PackedState.isValid(packed)) {
+                for (var direction : DIRECTIONS) {
+                    if (PackedState.canMove(packed, direction)) {
+                        successors[packed * DIRECTION_COUNT + direction.ordinal()] =
+                                (char) PackedState.move(packed, direction);
+                    }
+                }
+            }
+        }
+        return new TransitionTable(successors);
+    }
+
+    /**
+     * {@return the table packaged as a resource, or a table computed in memory
+     * if the resource is missing or out of date}
+     */
+    public static TransitionTable load() {
+        try (var in = TransitionTable.class.getResourceAsStream("/" + getResourceName())) {
+            if (in != null) {
+                var table = read(in);
+                if (table.isPresent()) {
+                    return table.get();
+                }
+            }
+        } catch (IOException e) {
+            Logger.warn(e, "Failed to read resource {}", getResourceName());
+        }
+        Logger.info("Computing transition table");
+        return compute();
+    }
+
+    /**
+     * {@return the name of the resource of the table for the current board
+     * size}
+     */
+    public static String getResourceName() {
+        return String.format("transitions-%dx%d.bin", PuzzleState.BOARD_SIZE, PuzzleState.BOARD_SIZE);
+    }
+
+    private static Optional<TransitionTable> read(InputStream in) throws IOException {
+        var buffer = ByteBuffer.wrap(in.readAllBytes());
+        if (buffer.limit() != HEADER_SIZE + PackedState.STATE_SPACE * DIRECTION_COUNT * Character.BYTES
+                || buffer.getInt() != MAGIC
+                || buffer.getInt() != FORMAT_VERSION
+                || buffer.getInt() != PuzzleState.BOARD_SIZE
+                || buffer.getInt() != PackedState.STATE_SPACE) {
+            Logger.warn("Resource {} is out of date", getResourceName());
+            return Optional.empty();
+        }
+        var checksum = buffer.getInt();
+        var successors = new char[PackedState.STATE_SPACE * DIRECTION_COUNT];
+        buffer.asCharBuffer().get(successors);
+        if (checksum != checksum(successors)) {
+            Logger.warn("Resource {} is corrupt", getResourceName());
+            return Optional.empty();
+        }
+        return Optional.of(new TransitionTable(successors));
+    }
+
+    /**
+     * Writes the table to the file specified.
+     *
+     * @param file the path of the file
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(PuzzleState.BOARD_SIZE);
+            out.writeInt(PackedState.STATE_SPACE);
+            out.writeInt(checksum(successors));
+            for (var successor : successors) {
+                out.writeChar(successor);
+            }
+        }
+    }
+
+    /**
+     * {@return the CRC-32 checksum of the table}
+     */
+    int getChecksum() {
+        return checksum(successors);
+    }
+
+    private static int checksum(char[] successors) {
+        var buffer = ByteBuffer.allocate(successors.length * Character.BYTES);
+        buffer.asCharBuffer().put(successors);
+        var crc = new CRC32();
+        crc.update(buffer);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * {@return the packed state that results from moving the block to the
+     * direction specified, or {@link #NONE} if the move is illegal}
+     *
+     * @param packed a valid packed state
+     * @param direction the direction to which the block is moved
+     */
+    public int getSuccessor(long packed, Direction direction) {
+        var successor = successors[(int) packed * DIRECTION_COUNT + direction.ordinal()];
+        return successor == ILLEGAL ? NONE : successor;
+    }
+
+    /**
+     * {@return the set of legal moves as a bit mask, where the bit
+     * {@code 1 << direction.ordinal()} is set for each direction to which the
+     * block can be moved}
+     *
+     * @param packed a valid packed state
+     */
+    public int getLegalMoves(long packed) {
+        var index = (int) packed * DIRECTION_COUNT;
+        var legalMoves = 0;
+        for (var i = 0; i < DIRECTION_COUNT; i++) {
+            if (successors[index + i] != ILLEGAL) {
+                legalMoves |= 1 << i;
+            }
+        }
+        return legalMoves;
+    }
+
+}
@@ -0,0 +1,320 @@
+package puzzle.util;
+
+import puzzle.model.Direction;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+/**
+ * Differential fuzzer that checks whether a move engine implements exactly
+ * the same rules as a reference engine.
+ *
+ * <p>The engines are compared by an exhaustive sweep over all the packed
+ * states, and by random move sequences started from random valid states.
+ * After each step the engines must agree on whether the move is legal and on
+ * the resulting state. The first divergence found is reported with a
+ * minimized reproducer: the sequence is cut after the diverging step, then
+ * moves are deleted one at a time as long as the engines still diverge.</p>
+ */
+public class EngineFuzzer {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * A move engine under test. An engine holds a current state that is
+     * exchanged with the fuzzer in packed form.
+     */
+    public interface Engine {
+
+        /**
+         * {@return the name of the engine}
+         */
+        String getName();
+
+        /**
+         * Sets the current state.
+         *
+         * @param packed a valid packed state
+         */
+        void reset(long packed);
+
+        /**
+         * {@return whether the block can be moved to the direction specified
+         * in the current state}
+         *
+         * @param direction a direction
+         */
+        boolean canMove(Direction direction);
+
+        /**
+         * Moves the block to the direction specified.
+         *
+         * @param direction a legal direction
+         */
+        void move(Direction direction);
+
+        /**
+         * {@return the current state in packed form}
+         */
+        long getState();
+
+    }
+
+    /**
+     * {@return an engine backed by {@link PuzzleState}}
+     */
+    public static Engine referenceEngine() {
+        return new Engine() {
+
+            private PuzzleState state;
+
+            @Override
+            public String getName() {
+                return "PuzzleState";
+            }
+
+            @Override
+            public void reset(long packed) {
+                state = PackedState.unpack(packed);
+            }
+
+            @Override
+            public boolean canMove(Direction direction) {
+                return state.canMove(direction);
+            }
+
+            @Override
+            public void move(Direction direction) {
+                state.move(direction);
+            }
+
+            @Override
+            public long getState() {
+                return PackedState.pack(state);
+            }
+
+        };
+    }
+
+    /**
+     * {@return an engine backed by {@link PackedState}}
+     */
+    public static Engine packedEngine() {
+        return new Engine() {
+
+            private long state;
+
+            @Override
+            public String getName() {
+                return "PackedState";
+            }
+
+            @Override
+            public void reset(long packed) {
+                state = packed;
+            }
+
+            @Override
+            public boolean canMove(Direction direction) {
+                return PackedState.canMove(state, direction);
+            }
+
+            @Override
+            public void move(Direction direction) {
+                state = PackedState.move(state, direction);
+            }
+
+            @Override
+            public long getState() {
+                return state;
+            }
+
+        };
+    }
+
+    /**
+     * Represents a sequence of moves on which the engines diverge.
+     *
+     * @param start the packed start state
+     * @param moves the sequence of moves, the engines diverge on the last one
+     * @param description the description of the divergence
+     */
+    public record Divergence(long start, List<Direction> moves, String description) {
+
+        @Override
+        public String toString() {
+            return String.format("%s after %s: %s", PackedState.unpack(start), moves, description);
+        }
+
+    }
+
+    private final Engine reference;
+
+    private final Engine candidate;
+
+    private final long[] validStates;
+
+    /**
+     * Creates an {@code EngineFuzzer} object.
+     *
+     * @param reference the reference engine
+     * @param candidate the engine that is compared to the reference engine
+     */
+    public EngineFuzzer(Engine reference, Engine candidate) {
+        this.reference = reference;
+        this.candidate = candidate;
+        var states = new long[PackedState.STATE_SPACE];
+        var count = 0;
+        for (var packed = 0; packed < PackedState.STATE_SPACE; packed++) {
+            if (PackedState.isValid(packed)) {
+                states[count++] = packed;
+            }
+        }
+        validStates = Arrays.copyOf(states, count);
+    }
+
+    /**
+     * {@return the first divergence found by trying every direction in every
+     * valid state, or an empty {@code Optional} if there is none}
+     */
+    public Optional<Divergence> sweep() {
+        for (var packed : validStates) {
+            for (var direction : DIRECTIONS) {
+                var moves = List.of(direction);
+                var divergence = findDivergence(packed, moves);
+                if (divergence.isPresent()) {
+                    return divergence;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * {@return the first divergence found by random move sequences, minimized,
+     * or an empty {@code Optional} if there is none} Illegal moves of a
+     * sequence are skipped by both engines.
+     *
+     * @param sequences the number of sequences
+     * @param length the number of moves of a sequence
+     * @param seed the seed of the random number generator
+     */
+    public Optional<Divergence> fuzz(int sequences, int length, long seed) {
+        var random = new SplittableRandom(seed);
+        for (var i = 0; i < sequences; i++) {
+            var start = validStates[random.nextInt(validStates.length)];
+            var moves = new ArrayList<Direction>(length);
+            for (var j = 0; j < length; j++) {
+                moves.add(DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+            }
+            var divergence = findDivergence(start, moves);
+            if (divergence.isPresent()) {
+                return Optional.of(minimize(divergence.get()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Replays the moves on both engines and returns the first divergence,
+     * with the moves cut after the diverging one.
+     */
+    Optional<Divergence> findDivergence(long start, List<Direction> moves) {
+        reference.reset(start);
+        candidate.reset(start);
+        for (var i = 0; i < moves.size(); i++) {
+            var direction = moves.get(i);
+            var legal = reference.canMove(direction);
+            String description = null;
+            if (legal != candidate.canMove(direction)) {
+                description = String.format("%s says %s is %s", candidate.getName(), direction,
+                        legal ? "illegal" : "legal");
+            } else if (legal) {
+                reference.move(direction);
+                candidate.move(direction);
+                if (reference.getState() != candidate.getState()) {
+                    description = String.format("%s reaches %s instead of %s", candidate.getName(),
+                            toString(candidate.getState()), toString(reference.getState()));
+                }
+            }
+            if (description != null) {
+                return Optional.of(new Divergence(start, List.copyOf(moves.subList(0, i + 1)), description));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static String toString(long packed) {
+        return PackedState.isValid(packed) ? PackedState.unpack(packed).toString() : Long.toHexString(packed);
+    }
+
+    private Divergence minimize(Divergence divergence) {
+        var reduced = true;
+        while (reduced) {
+            reduced = false;
+            for (var i = divergence.moves().size() - 2; i >= 0; i--) {
+                var moves = new ArrayList<>(divergence.moves());
+                moves.remove(i);
+                var smaller = findDivergence(divergence.start(), moves);
+                if (smaller.isPresent()) {
+                    divergence = smaller.get();
+                    reduced = true;
+                    break;
+                }
+            }
+        }
+        return divergence;
+    }
+
+    /**
+     * {@return the number of attempted moves per second performed by the
+     * engine specified on random move sequences}
+     *
+     * @param engine the engine to be measured
+     * @param sequences the number of sequences
+     * @param length the number of moves of a sequence
+     * @param seed the seed of the random number generator
+     */
+    public double measureThroughput(Engine engine, int sequences, int length, long seed) {
+        var random = new SplittableRandom(seed);
+        var startTime = System.nanoTime();
+        for (var i = 0; i < sequences; i++) {
+            engine.reset(validStates[random.nextInt(validStates.length)]);
+            for (var j = 0; j < length; j++) {
+                var direction = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+                if (engine.canMove(direction)) {
+                    engine.move(direction);
+                }
+            }
+        }
+        var elapsed = System.nanoTime() - startTime;
+        return (double) sequences * length / elapsed * 1e9;
+    }
+
+    public static void main(String[] args) {
+        var sequences = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        var length = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        var seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        var reference = referenceEngine();
+        var candidate = packedEngine();
+        var fuzzer = new EngineFuzzer(reference, candidate);
+        var divergence = fuzzer.sweep().or(() -> fuzzer.fuzz(sequences, length, seed));
+        divergence.ifPresentOrElse(
+                d -> System.out.println("Divergence: " + d),
+                () -> System.out.println("No divergence found")
+        );
+        for (var engine : List.of(reference, candidate)) {
+            System.out.printf("%s: %.0f moves/s%n", engine.getName(),
+                    fuzzer.measureThroughput(engine, sequences, length, seed));
+        }
+        if (divergence.isPresent()) {
+            System.exit(1);
+        }
+    }
+
+}
@@ -0,0 +1,238 @@
+package puzzle.util;
+
+import puzzle.model.PackedState;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Provides random access to the levels of a binary level pack.
+ *
+ * <p>A level pack is authored as a text file that contains a start state per
+ * line in the format of {@link PuzzleState#toString()}, for example,
+ * {@code [(0,0),(2,0),(1,1),(0,2)]}. Blank lines and lines starting with
+ * {@code #} are ignored. For shipping, it is converted to a binary file that
+ * consists of</p>
+ * <ul>
+ *     <li>a header: the magic number {@code SPLP}, the format version and the
+ *     number of levels ({@code int} values),</li>
+ *     <li>an offset table: the offset of each level from the start of the
+ *     file ({@code long} values),</li>
+ *     <li>the levels: the number of pieces ({@code byte}) followed by the row
+ *     and column of each piece ({@code byte} values).</li>
+ * </ul>
+ *
+ * <p>The binary file is memory-mapped, so opening a level pack does not read
+ * the levels, and each level is decoded and validated only when it is
+ * accessed.</p>
+ */
+public class LevelPack implements AutoCloseable {
+
+    private static final int MAGIC = 0x53504C50; // "SPLP"
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+    private static final Pattern POSITION_PATTERN = Pattern.compile("\\((\\d+),(\\d+)\\)");
+
+    private final FileChannel channel;
+
+    private final ByteBuffer buffer;
+
+    private final int size;
+
+    private LevelPack(FileChannel channel) throws IOException {
+        this.channel = channel;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a level pack");
+        }
+        if (buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+            throw new IOException("Unsupported level pack version");
+        }
+        size = buffer.getInt(2 * Integer.BYTES);
+        if (size < 0 || HEADER_SIZE + (long) size * Long.BYTES > buffer.limit()) {
+            throw new IOException("Invalid number of levels");
+        }
+    }
+
+    /**
+     * {@return the level pack stored in the binary file specified}
+     *
+     * @param file the path of a binary level pack
+     * @throws IOException if an I/O error occurs or the file is not a level
+     *                     pack
+     */
+    public static LevelPack open(Path file) throws IOException {
+        var channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new LevelPack(channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * {@return the number of levels}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return the start state of the level specified}
+     *
+     * @param index the index of a level
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalArgumentException if the level is not a valid state
+     */
+    public PuzzleState get(int index) {
+        var offset = buffer.getLong(HEADER_SIZE + Long.BYTES * Objects.checkIndex(index, size));
+        if (offset < 0 || offset >= buffer.limit()) {
+            throw new IllegalArgumentException(String.format("Level %d has invalid offset", index));
+        }
+        var pieceCount = Byte.toUnsignedInt(buffer.get((int) offset));
+        if (offset + 1 + 2L * pieceCount > buffer.limit()) {
+            throw new IllegalArgumentException(String.format("Level %d is truncated", index));
+        }
+        var positions = new Position[pieceCount];
+        for (var i = 0; i < pieceCount; i++) {
+            positions[i] = new Position(buffer.get((int) offset + 1 + 2 * i), buffer.get((int) offset + 2 + 2 * i));
+        }
+        return createState(positions, () -> String.format("Level %d is invalid", index));
+    }
+
+    /**
+     * {@return a lazy stream of the start states of all levels}
+     */
+    public Stream<PuzzleState> stream() {
+        return IntStream.range(0, size).mapToObj(this::get);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * {@return a lazy stream of the start states stored in the text file
+     * specified} The stream must be closed to close the file.
+     *
+     * @param file the path of a text level pack
+     * @throws IOException if an I/O error occurs
+     */
+    public static Stream<PuzzleState> readText(Path file) throws IOException {
+        return Files.lines(file)
+                .map(String::strip)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(LevelPack::parse);
+    }
+
+    /**
+     * {@return the state represented by the text specified, in the format of
+     * {@link PuzzleState#toString()}}
+     *
+     * @param text the text representation of a state
+     * @throws IllegalArgumentException if the text is not a valid state
+     */
+    public static PuzzleState parse(String text) {
+        var positions = new ArrayList<Position>();
+        var matcher = POSITION_PATTERN.matcher(text);
+        while (matcher.find()) {
+            positions.add(new Position(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+        }
+        return createState(positions.toArray(Position[]::new), () -> "Invalid level: " + text);
+    }
+
+    private static PuzzleState createState(Position[] positions, Supplier<String> message) {
+        try {
+            return new PuzzleState(positions);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(message.get(), e);
+        }
+    }
+
+    /**
+     * Writes the start states specified to a binary level pack.
+     *
+     * @param file the path of the binary file
+     * @param states the start states of the levels
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(Path file, Iterator<PuzzleState> states) throws IOException {
+        var levels = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            var offsets = new long[1024];
+            var size = 0;
+            var position = 0L;
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(levels)))) {
+                while (states.hasNext()) {
+                    var state = states.next();
+                    if (size == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, 2 * size);
+                    }
+                    offsets[size++] = position;
+                    out.writeByte(PackedState.PIECE_COUNT);
+                    for (var i = 0; i < PackedState.PIECE_COUNT; i++) {
+                        out.writeByte(state.getPosition(i).row());
+                        out.writeByte(state.getPosition(i).col());
+                    }
+                    position += 1 + 2 * PackedState.PIECE_COUNT;
+                }
+            }
+            var levelsOffset = HEADER_SIZE + (long) size * Long.BYTES;
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(size);
+                for (var i = 0; i < size; i++) {
+                    out.writeLong(levelsOffset + offsets[i]);
+                }
+                Files.copy(levels, out);
+            }
+        } finally {
+            Files.deleteIfExists(levels);
+        }
+    }
+
+    /**
+     * Converts a text level pack to a binary level pack.
+     *
+     * @param args the paths of the text file and the binary file
+     * @throws IOException if an I/O error occurs
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: LevelPack <text file> <binary file>");
+            System.exit(1);
+        }
+        try (var states = readText(Path.of(args[0]))) {
+            write(Path.of(args[1]), states.iterator());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        try (var pack = open(Path.of(args[1]))) {
+            System.out.printf("Wrote %d levels%n", pack.size());
+        }
+    }
+
+}
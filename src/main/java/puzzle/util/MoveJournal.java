@@ -0,0 +1,209 @@
+package puzzle.util;
+
+import org.tinylog.Logger;
+import puzzle.model.Direction;
+import puzzle.model.PackedState;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records moves in a preallocated ring buffer that is drained to a
+ * {@link Sink} by a background thread in batches.
+ *
+ * <p>Recording a move only stores a timestamp, the direction and the packed
+ * state into primitive arrays and publishes the new write position, so it
+ * does not allocate and never blocks. If the drainer falls behind and the
+ * buffer is full, the move is dropped and counted. {@link #record} must
+ * always be called from the same thread.</p>
+ */
+public class MoveJournal implements AutoCloseable {
+
+    /**
+     * Receives the moves drained from the journal.
+     */
+    public interface Sink extends AutoCloseable {
+
+        /**
+         * Writes a move.
+         *
+         * @param timestamp the time of the move in milliseconds since the epoch
+         * @param direction the direction of the move
+         * @param state the packed state after the move
+         * @throws IOException if an I/O error occurs
+         */
+        void write(long timestamp, Direction direction, long state) throws IOException;
+
+        /**
+         * Invoked after each batch of moves.
+         *
+         * @throws IOException if an I/O error occurs
+         */
+        default void flush() throws IOException {
+        }
+
+        @Override
+        default void close() throws IOException {
+        }
+
+    }
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private static final long DRAIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final long[] timestamps;
+    private final byte[] directions;
+    private final long[] states;
+    private final int mask;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Sink sink;
+
+    private final Thread drainer;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates a {@code MoveJournal} object and starts its drainer thread.
+     *
+     * @param capacity the capacity of the ring buffer, must be a power of two
+     * @param sink the sink to which the moves are drained
+     */
+    public MoveJournal(int capacity, Sink sink) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        timestamps = new long[capacity];
+        directions = new byte[capacity];
+        states = new long[capacity];
+        mask = capacity - 1;
+        this.sink = sink;
+        drainer = new Thread(this::drainLoop, "move-journal-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * {@return a sink that logs the moves with tinylog}
+     */
+    public static Sink logSink() {
+        return (timestamp, direction, state) -> {
+            Logger.info("Moving {}", direction);
+            Logger.trace("New state: {}", () -> PackedState.unpack(state));
+        };
+    }
+
+    /**
+     * {@return a sink that writes the moves to a binary file} Each move is
+     * written as the timestamp ({@code long}), the ordinal of the direction
+     * ({@code byte}) and the packed state ({@code long}).
+     *
+     * @param file the path of the file
+     * @throws IOException if an I/O error occurs
+     */
+    public static Sink binarySink(Path file) throws IOException {
+        var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        return new Sink() {
+            @Override
+            public void write(long timestamp, Direction direction, long state) throws IOException {
+                out.writeLong(timestamp);
+                out.writeByte(direction.ordinal());
+                out.writeLong(state);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                out.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.close();
+            }
+        };
+    }
+
+    /**
+     * Records a move.
+     *
+     * @param direction the direction of the move
+     * @param state the packed state after the move
+     */
+    public void record(Direction direction, long state) {
+        var sequence = published.get();
+        if (sequence - consumed.get() > mask) {
+            dropped.incrementAndGet();
+            return;
+        }
+        var i = (int) sequence & mask;
+        timestamps[i] = System.currentTimeMillis();
+        directions[i] = (byte) direction.ordinal();
+        states[i] = state;
+        published.lazySet(sequence + 1);
+    }
+
+    /**
+     * {@return the number of moves dropped because the buffer was full}
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void drainLoop() {
+        while (!closed) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(DRAIN_INTERVAL_NANOS);
+            }
+        }
+    }
+
+    private int drain() {
+        var start = consumed.get();
+        var end = published.get();
+        try {
+            for (var sequence = start; sequence < end; sequence++) {
+                var i = (int) sequence & mask;
+                sink.write(timestamps[i], DIRECTIONS[directions[i]], states[i]);
+            }
+            if (end > start) {
+                sink.flush();
+            }
+        } catch (IOException e) {
+            Logger.error(e, "Failed to write move journal");
+        }
+        consumed.lazySet(end);
+        return (int) (end - start);
+    }
+
+    /**
+     * Stops the drainer thread after writing the pending moves, and closes
+     * the sink.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+        try {
+            sink.close();
+        } catch (Exception e) {
+            Logger.error(e, "Failed to close move journal");
+        }
+    }
+
+}
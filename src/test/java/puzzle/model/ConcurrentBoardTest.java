@@ -0,0 +1,76 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentBoardTest {
+
+    ConcurrentBoard board = new ConcurrentBoard(new PuzzleState()); // the original initial state
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentBoard(0));
+    }
+
+    @Test
+    void move() {
+        assertFalse(board.move(Direction.UP));
+        assertEquals(0, board.getVersion());
+        assertTrue(board.move(Direction.RIGHT));
+        assertEquals(1, board.getVersion());
+        var expected = new PuzzleState();
+        expected.move(Direction.RIGHT);
+        assertEquals(expected, board.toPuzzleState());
+    }
+
+    @Test
+    void move_withVersion() {
+        assertFalse(board.move(1, Direction.RIGHT));
+        assertTrue(board.move(0, Direction.RIGHT));
+        assertFalse(board.move(0, Direction.LEFT));
+        assertTrue(board.move(1, Direction.LEFT));
+        assertEquals(PackedState.pack(new PuzzleState()), board.getState());
+    }
+
+    @Test
+    void addListener() {
+        var notified = new ArrayList<Long>();
+        board.addListener((version, oldState, newState, direction) -> {
+            assertEquals(PackedState.move(oldState, direction), newState);
+            notified.add(version);
+        });
+        board.move(Direction.RIGHT);
+        board.move(Direction.UP);
+        board.move(Direction.LEFT);
+        assertEquals(List.of(1L, 2L), notified);
+    }
+
+    @Test
+    void move_concurrently() throws InterruptedException {
+        var moves = new AtomicLong();
+        var threads = new ArrayList<Thread>();
+        for (var i = 0; i < 4; i++) {
+            var random = new SplittableRandom(i);
+            threads.add(new Thread(() -> {
+                for (var j = 0; j < 10_000; j++) {
+                    if (board.move(Direction.values()[random.nextInt(4)])) {
+                        moves.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (var thread : threads) {
+            thread.join();
+        }
+        assertEquals(moves.get(), board.getVersion());
+        assertTrue(PackedState.isValid(board.getState()));
+    }
+
+}
@@ -0,0 +1,84 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedStateTest {
+
+    PuzzleState state1 = new PuzzleState(); // the original initial state
+
+    PuzzleState state2 = new PuzzleState(new Position(1, 1),
+            new Position(1, 1),
+            new Position(1, 1),
+            new Position(1, 2)); // a goal state
+
+    @Test
+    void packAndUnpack() {
+        assertEquals(state1, PackedState.unpack(PackedState.pack(state1)));
+        assertEquals(state2, PackedState.unpack(PackedState.pack(state2)));
+    }
+
+    @Test
+    void getPosition() {
+        var packed = PackedState.pack(state1);
+        for (var i = 0; i < PackedState.PIECE_COUNT; i++) {
+            assertEquals(state1.getPosition(i), PackedState.getPosition(packed, i));
+        }
+    }
+
+    @Test
+    void isValid() {
+        assertTrue(PackedState.isValid(PackedState.pack(state1)));
+        assertFalse(PackedState.isValid(-1));
+        assertFalse(PackedState.isValid(PackedState.STATE_SPACE));
+        assertFalse(PackedState.isValid(0)); // the blue and black shoes at the same position
+    }
+
+    @Test
+    void isGoal() {
+        assertFalse(PackedState.isGoal(PackedState.pack(state1)));
+        assertTrue(PackedState.isGoal(PackedState.pack(state2)));
+    }
+
+    @Test
+    void getLegalMoves() {
+        assertEquals(1 << Direction.RIGHT.ordinal() | 1 << Direction.DOWN.ordinal(),
+                PackedState.getLegalMoves(PackedState.pack(state1)));
+    }
+
+    @Test
+    void getMovedPieces() {
+        var packed = PackedState.pack(state2);
+        assertEquals(1 << PuzzleState.BLOCK | 1 << PuzzleState.RED_SHOE | 1 << PuzzleState.BLUE_SHOE,
+                PackedState.getMovedPieces(packed, Direction.DOWN));
+        assertEquals(1 << PuzzleState.BLOCK, PackedState.getMovedPieces(packed, Direction.UP));
+    }
+
+    @Test
+    void rulesMatchPuzzleState() {
+        for (var packed = 0L; packed < PackedState.STATE_SPACE; packed++) {
+            if (!PackedState.isValid(packed)) {
+                continue;
+            }
+            var state = PackedState.unpack(packed);
+            assertEquals(packed, PackedState.pack(state));
+            assertEquals(state.isGoal(), PackedState.isGoal(packed));
+            var legalMoves = EnumSet.noneOf(Direction.class);
+            for (var direction : Direction.values()) {
+                if ((PackedState.getLegalMoves(packed) & (1 << direction.ordinal())) != 0) {
+                    legalMoves.add(direction);
+                }
+            }
+            assertEquals(state.getLegalMoves(), legalMoves, state::toString);
+            for (var direction : state.getLegalMoves()) {
+                var next = state.clone();
+                next.move(direction);
+                assertEquals(PackedState.pack(next), PackedState.move(packed, direction), state::toString);
+            }
+        }
+    }
+
+}
@@ -179,6 +179,18 @@ class PuzzleStateTest {
         assertTrue(state1.hashCode() == state1.clone().hashCode());
     }
 
+    @Test
+    void getZobristKey() {
+        var state = state1.clone();
+        state.move(Direction.RIGHT);
+        state.move(Direction.DOWN);
+        var expected = new PuzzleState(state.getPosition(0), state.getPosition(1), state.getPosition(2),
+                state.getPosition(3));
+        assertEquals(expected.getZobristKey(), state.getZobristKey());
+        assertEquals(expected, state);
+        assertNotEquals(state1.getZobristKey(), state.getZobristKey());
+    }
+
     @Test
     void testClone() {
         var clone = state1.clone();
@@ -0,0 +1,111 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.Direction;
+import puzzle.model.PuzzleState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BreadthFirstSearchTest {
+
+    BreadthFirstSearch search = new BreadthFirstSearch();
+
+    @Test
+    void search() {
+        var node = search.search(new PuzzleSearchProblem(new PuzzleState())).orElseThrow();
+        var path = node.getPath();
+        assertEquals(24, path.size());
+        var state = new PuzzleState();
+        for (var direction : path) {
+            assertTrue(state.canMove(direction));
+            state.move(direction);
+        }
+        assertTrue(state.isGoal());
+        assertEquals(state, node.getState());
+    }
+
+    @Test
+    void search_shouldMatchPuzzleStateOverload() {
+        var generic = search.search(new PuzzleSearchProblem(new PuzzleState())).orElseThrow();
+        var specific = search.search(new PuzzleState()).orElseThrow();
+        assertEquals(generic.getPath(), specific.getPath());
+    }
+
+    @Test
+    void search_shouldReturnStartWhenItIsGoal() {
+        var node = search.search(new CounterProblem(3, 3)).orElseThrow();
+        assertEquals(3, node.getState());
+        assertEquals(List.of(), node.getPath());
+        assertEquals(Optional.empty(), node.getParent());
+        assertEquals(Optional.empty(), node.getDirection());
+    }
+
+    @Test
+    void search_shouldFindShortestPathOfAnyProblem() {
+        var node = search.search(new CounterProblem(0, 7)).orElseThrow();
+        assertEquals(7, node.getState());
+        assertEquals(4, node.getPath().size());
+        assertEquals(7, node.getPath().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void search_shouldReturnEmptyWhenGoalIsUnreachable() {
+        assertEquals(Optional.empty(), search.search(new CounterProblem(10, 3)));
+    }
+
+    @Test
+    void node() {
+        var problem = new PuzzleSearchProblem(new PuzzleState());
+        var start = new Node<>(problem, problem.getInitialState());
+        assertEquals(start, start);
+        var children = new ArrayList<Node<PuzzleState, Direction>>();
+        while (start.hasNextChild()) {
+            children.add(start.nextChild().orElseThrow());
+        }
+        assertEquals(problem.getActions(problem.getInitialState()).size(), children.size());
+        assertEquals(Optional.empty(), start.nextChild());
+        for (var child : children) {
+            assertEquals(Optional.of(start), child.getParent());
+            assertEquals(List.of(child.getDirection().orElseThrow()), child.getPath());
+            assertTrue(children.contains(child));
+        }
+    }
+
+    /**
+     * A problem whose states are the integers up to 16, where the actions
+     * add 1 or 2 to the state.
+     */
+    record CounterProblem(int initialState, int goal) implements SearchProblem<Integer, Integer> {
+
+        @Override
+        public Integer getInitialState() {
+            return initialState;
+        }
+
+        @Override
+        public boolean isGoal(Integer state) {
+            return state == goal;
+        }
+
+        @Override
+        public Collection<Integer> getActions(Integer state) {
+            var actions = new ArrayList<Integer>();
+            for (var action = 1; action <= 2 && state + action <= 16; action++) {
+                actions.add(action);
+            }
+            return actions;
+        }
+
+        @Override
+        public Integer apply(Integer state, Integer action) {
+            return state + action;
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.Direction;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheapestPathSearchTest {
+
+    CheapestPathSearch search = new CheapestPathSearch();
+
+    @Test
+    void search_shouldMatchBreadthFirstSearchWithUnitCosts() {
+        var bfs = new PackedBreadthFirstSearch();
+        for (var state = 0; state < PackedState.STATE_SPACE; state += 61) {
+            if (!PackedState.isValid(state)) {
+                continue;
+            }
+            var problem = new PackedPuzzleSearchProblem(state, GoalPredicate.STANDARD, MoveCostModel.UNIT);
+            var expected = bfs.search(problem).map(Solution::length);
+            var solution = search.search(problem);
+            assertEquals(expected, solution.map(Solution::cost));
+            assertEquals(expected, solution.map(Solution::length));
+        }
+    }
+
+    @Test
+    void search_shouldPreferCheaperLongerRoute() {
+        var costModel = MoveCostModel.perPiece(1, 1, 1, 20); // an expensive black shoe
+        var shortest = search.search(new PuzzleState(), MoveCostModel.UNIT).orElseThrow();
+        var cheapest = search.search(new PuzzleState(), costModel).orElseThrow();
+        assertEquals(cheapest.cost(), costOf(cheapest.moves(), costModel));
+        assertTrue(cheapest.cost() < costOf(shortest.moves(), costModel));
+        assertTrue(cheapest.length() > shortest.length());
+        assertGoalReached(cheapest.moves());
+    }
+
+    @Test
+    void search_shouldAcceptZeroCostMoves() {
+        var free = search.search(new PuzzleState(), MoveCostModel.perPiece(0, 0, 0, 0)).orElseThrow();
+        assertEquals(0, free.cost());
+        assertGoalReached(free.moves());
+        var costModel = MoveCostModel.perPiece(0, 1, 1, 1);
+        var shoesOnly = search.search(new PuzzleState(), costModel).orElseThrow();
+        assertEquals(shoesOnly.cost(), costOf(shoesOnly.moves(), costModel));
+        assertGoalReached(shoesOnly.moves());
+    }
+
+    @Test
+    void search_shouldRejectCostsAboveMaxCost() {
+        var problem = new PackedPuzzleSearchProblem(PackedState.pack(new PuzzleState()), GoalPredicate.STANDARD) {
+
+            @Override
+            public int getCost(long state, int action) {
+                return 3;
+            }
+
+        };
+        assertThrows(IllegalStateException.class, () -> search.search(problem));
+    }
+
+    private static int costOf(List<Direction> moves, MoveCostModel costModel) {
+        var packed = PackedState.pack(new PuzzleState());
+        var cost = 0;
+        for (var direction : moves) {
+            cost += costModel.getCost(PackedState.getMovedPieces(packed, direction));
+            packed = PackedState.move(packed, direction);
+        }
+        return cost;
+    }
+
+    private static void assertGoalReached(List<Direction> moves) {
+        var state = new PuzzleState();
+        for (var direction : moves) {
+            assertTrue(state.canMove(direction));
+            state.move(direction);
+        }
+        assertTrue(state.isGoal());
+    }
+
+}
@@ -0,0 +1,119 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import puzzle.model.PackedState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceDatabaseTest {
+
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void open_shouldRoundTripFile() throws IOException {
+        var file = directory.resolve("distances.db");
+        var computed = DistanceDatabase.compute();
+        computed.write(file);
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count()); // no temporary file is left behind
+        }
+        var bytes = Files.readAllBytes(file);
+        assertEquals(HEADER_SIZE + 2 * PackedState.STATE_SPACE, bytes.length);
+        assertSameContent(computed, DistanceDatabase.open(file));
+        assertArrayEquals(bytes, Files.readAllBytes(file));
+    }
+
+    @Test
+    void open_shouldBuildMissingFile() throws IOException {
+        var file = directory.resolve("missing").resolve("distances.db");
+        var database = DistanceDatabase.open(file);
+        assertTrue(Files.isRegularFile(file));
+        assertSameContent(DistanceDatabase.compute(), database);
+    }
+
+    @Test
+    void open_shouldRebuildCorruptFile() throws IOException {
+        assertRebuiltAfterFlipping(HEADER_SIZE + 1234);
+    }
+
+    @Test
+    void open_shouldRebuildFileOfOtherRules() throws IOException {
+        assertRebuiltAfterFlipping(2 * Integer.BYTES); // the rules fingerprint
+    }
+
+    @Test
+    void open_shouldRebuildFileOfOtherFormat() throws IOException {
+        assertRebuiltAfterFlipping(Integer.BYTES); // the format version
+    }
+
+    @Test
+    void open_shouldRebuildTruncatedFile() throws IOException {
+        var file = directory.resolve("distances.db");
+        DistanceDatabase.compute().write(file);
+        var bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        DistanceDatabase.open(file);
+        assertArrayEquals(bytes, Files.readAllBytes(file));
+    }
+
+    @Test
+    void getDistance_shouldMatchPackedBreadthFirstSearch() {
+        var database = DistanceDatabase.load();
+        var search = new PackedBreadthFirstSearch();
+        for (var packed = 0; packed < PackedState.STATE_SPACE; packed++) {
+            if (!PackedState.isValid(packed)) {
+                continue;
+            }
+            var problem = new PackedPuzzleSearchProblem(packed, GoalPredicate.STANDARD);
+            var expected = search.search(problem).map(Solution::length).orElse(DistanceDatabase.UNREACHABLE);
+            var distance = database.getDistance(packed);
+            assertEquals(expected, distance);
+            var bestMove = database.getBestMove(packed);
+            if (distance == DistanceDatabase.UNREACHABLE || distance == 0) {
+                assertEquals(Optional.empty(), bestMove);
+            } else {
+                var direction = bestMove.orElseThrow();
+                assertTrue(PackedState.canMove(packed, direction));
+                assertEquals(distance - 1, database.getDistance(PackedState.move(packed, direction)));
+            }
+        }
+    }
+
+    @Test
+    void write_shouldStoreRulesFingerprint() throws IOException {
+        var file = directory.resolve("distances.db");
+        DistanceDatabase.compute().write(file);
+        var header = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(DistanceDatabase.getRulesFingerprint(), header.getInt(2 * Integer.BYTES));
+    }
+
+    private void assertRebuiltAfterFlipping(int offset) throws IOException {
+        var file = directory.resolve("distances.db");
+        DistanceDatabase.compute().write(file);
+        var bytes = Files.readAllBytes(file);
+        var corrupt = bytes.clone();
+        corrupt[offset] ^= 1;
+        Files.write(file, corrupt);
+        assertSameContent(DistanceDatabase.compute(), DistanceDatabase.open(file));
+        assertArrayEquals(bytes, Files.readAllBytes(file));
+    }
+
+    private static void assertSameContent(DistanceDatabase expected, DistanceDatabase actual) {
+        for (var packed = 0; packed < PackedState.STATE_SPACE; packed++) {
+            assertEquals(expected.getDistance(packed), actual.getDistance(packed));
+            assertEquals(expected.getBestMove(packed), actual.getBestMove(packed));
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalBreadthFirstSearchTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void search_shouldMatchPackedBreadthFirstSearch() throws IOException {
+        assertMatchesPackedBreadthFirstSearch(new ExternalBreadthFirstSearch(directory, 4), 97);
+    }
+
+    @Test
+    void search_shouldMergeRunsInSeveralPasses() throws IOException {
+        // a state per run and 2 runs per merge force several merge passes per layer
+        assertMatchesPackedBreadthFirstSearch(new ExternalBreadthFirstSearch(directory, 1, 2), 389);
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void constructor_shouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ExternalBreadthFirstSearch(directory, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ExternalBreadthFirstSearch(directory, 4, 1));
+    }
+
+    private void assertMatchesPackedBreadthFirstSearch(ExternalBreadthFirstSearch external, int step)
+            throws IOException {
+        var packed = new PackedBreadthFirstSearch();
+        for (var state = 0; state < PackedState.STATE_SPACE; state += step) {
+            if (!PackedState.isValid(state)) {
+                continue;
+            }
+            var problem = new PackedPuzzleSearchProblem(state, GoalPredicate.STANDARD);
+            var expected = packed.search(problem).map(Solution::length);
+            var path = external.search(problem);
+            assertEquals(expected, path.map(List::size), () -> PackedState.unpack(problem.getInitialState()).toString());
+            path.ifPresent(moves -> {
+                var current = problem.getInitialState();
+                for (var move : moves) {
+                    var action = problem.getActions().indexOf(move);
+                    assertNotEquals(0, problem.getLegalActions(current) & (1 << action));
+                    current = problem.apply(current, action);
+                }
+                assertTrue(problem.isGoal(current));
+            });
+        }
+    }
+
+    @Test
+    void search_shouldDeleteItsFiles() throws IOException {
+        var external = new ExternalBreadthFirstSearch(directory, 4);
+        var unsolvable = new PackedPuzzleSearchProblem(PackedState.pack(new PuzzleState()), state -> false);
+        assertEquals(Optional.empty(), external.search(unsolvable));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void search_shouldAcceptNegativeStates() throws IOException {
+        var external = new ExternalBreadthFirstSearch(directory, 1);
+        assertEquals(Optional.of(List.of("inc", "inc", "inc")), external.search(new CounterProblem(-1, 2)));
+    }
+
+    /**
+     * A problem whose states are the integers from the initial state up to
+     * the goal state, with a single action that increments the state.
+     */
+    record CounterProblem(long initialState, long goal) implements LongSearchProblem<String> {
+
+        @Override
+        public long getInitialState() {
+            return initialState;
+        }
+
+        @Override
+        public boolean isGoal(long state) {
+            return state == goal;
+        }
+
+        @Override
+        public List<String> getActions() {
+            return List.of("inc");
+        }
+
+        @Override
+        public int getLegalActions(long state) {
+            return state < goal ? 1 : 0;
+        }
+
+        @Override
+        public long apply(long state, int action) {
+            return state + 1;
+        }
+
+        @Override
+        public int getStateSpaceSize() {
+            return 0;
+        }
+
+    }
+
+}
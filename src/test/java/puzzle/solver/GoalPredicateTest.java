@@ -0,0 +1,104 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.PackedState;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoalPredicateTest {
+
+    static final GoalPredicate ALWAYS = packed -> true;
+
+    static final GoalPredicate NEVER = packed -> false;
+
+    @Test
+    void standard() {
+        for (var packed = 0; packed < PackedState.STATE_SPACE; packed++) {
+            if (PackedState.isValid(packed)) {
+                assertEquals(PackedState.unpack(packed).isGoal(), GoalPredicate.STANDARD.test(packed));
+            }
+        }
+    }
+
+    @Test
+    void pieceAt() {
+        var position = new Position(2, 2);
+        var predicate = GoalPredicate.pieceAt(PuzzleState.BLOCK, position);
+        for (var packed = 0; packed < PackedState.STATE_SPACE; packed++) {
+            if (PackedState.isValid(packed)) {
+                assertEquals(position.equals(PackedState.getPosition(packed, PuzzleState.BLOCK)),
+                        predicate.test(packed));
+            }
+        }
+    }
+
+    @Test
+    void together() {
+        var predicate = GoalPredicate.together(PuzzleState.RED_SHOE, PuzzleState.BLACK_SHOE);
+        for (var packed = 0; packed < PackedState.STATE_SPACE; packed++) {
+            if (PackedState.isValid(packed)) {
+                var state = PackedState.unpack(packed);
+                assertEquals(state.getPosition(PuzzleState.RED_SHOE).equals(state.getPosition(PuzzleState.BLACK_SHOE)),
+                        predicate.test(packed));
+            }
+        }
+        assertTrue(GoalPredicate.together(PuzzleState.RED_SHOE, PuzzleState.BLUE_SHOE)
+                .test(PackedState.pack(new PuzzleState(new Position(0, 0), new Position(1, 1),
+                        new Position(1, 1), new Position(2, 2)))));
+    }
+
+    @Test
+    void and() {
+        assertTrue(ALWAYS.and(ALWAYS).test(0));
+        assertFalse(ALWAYS.and(NEVER).test(0));
+        assertFalse(NEVER.and(ALWAYS).test(0));
+        assertFalse(NEVER.and(NEVER).test(0));
+    }
+
+    @Test
+    void or() {
+        assertTrue(ALWAYS.or(ALWAYS).test(0));
+        assertTrue(ALWAYS.or(NEVER).test(0));
+        assertTrue(NEVER.or(ALWAYS).test(0));
+        assertFalse(NEVER.or(NEVER).test(0));
+    }
+
+    @Test
+    void anyOf() {
+        var initial = PackedState.pack(new PuzzleState());
+        var targets = GoalPredicate.toTargetSet(new PuzzleState());
+        assertEquals(1, targets.cardinality());
+        var predicate = GoalPredicate.anyOf(targets);
+        assertTrue(predicate.test(initial));
+        assertFalse(predicate.test(initial + 1));
+        targets.set((int) initial + 1); // the bit set is not copied
+        assertTrue(predicate.test(initial + 1));
+        assertFalse(GoalPredicate.anyOf(new BitSet()).test(initial));
+    }
+
+    @Test
+    void search_shouldSolveCombinedGoal() {
+        // the block in the bottom right corner with the red shoe inside the black shoe
+        var goal = GoalPredicate.pieceAt(PuzzleState.BLOCK, new Position(2, 2))
+                .and(GoalPredicate.together(PuzzleState.RED_SHOE, PuzzleState.BLACK_SHOE));
+        var search = new PackedBreadthFirstSearch();
+        var solution = search.search(new PuzzleState(), goal).orElseThrow();
+        var state = new PuzzleState();
+        for (var direction : solution.moves()) {
+            assertTrue(state.canMove(direction));
+            state.move(direction);
+        }
+        assertEquals(new Position(2, 2), state.getPosition(PuzzleState.BLOCK));
+        assertEquals(state.getPosition(PuzzleState.BLACK_SHOE), state.getPosition(PuzzleState.RED_SHOE));
+        assertEquals(PackedState.pack(state), solution.goal());
+        // the same goal written as a plain lambda is reached no sooner
+        GoalPredicate lambda = packed -> PackedState.getCell(packed, PuzzleState.BLOCK) == PackedState.CELL_COUNT - 1
+                && PackedState.getCell(packed, PuzzleState.RED_SHOE) == PackedState.getCell(packed, PuzzleState.BLACK_SHOE);
+        assertEquals(solution.length(), search.search(new PuzzleState(), lambda).orElseThrow().length());
+    }
+
+}
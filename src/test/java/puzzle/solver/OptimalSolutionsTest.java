@@ -0,0 +1,177 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.PuzzleState;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimalSolutionsTest {
+
+    @Test
+    void count_shouldMatchStreamOnInitialState() {
+        var solutions = OptimalSolutions.of(new PuzzleState());
+        assertEquals(24, solutions.getLength());
+        assertTrue(solutions.count().signum() > 0);
+        assertEquals(solutions.count(), BigInteger.valueOf(solutions.stream().count()));
+    }
+
+    @Test
+    void stream_shouldReturnDistinctSolutionsOfInitialState() {
+        var solutions = OptimalSolutions.of(new PuzzleState());
+        var paths = solutions.stream().collect(Collectors.toList());
+        assertEquals(paths.size(), new HashSet<>(paths).size());
+        for (var path : paths) {
+            assertEquals(solutions.getLength(), path.size());
+            var state = new PuzzleState();
+            for (var direction : path) {
+                assertTrue(state.canMove(direction));
+                state.move(direction);
+            }
+            assertTrue(state.isGoal());
+        }
+    }
+
+    @Test
+    void count_shouldMatchBinomialCoefficientOnGrid() {
+        // monotone lattice paths from the top left to the bottom right corner
+        var solutions = new OptimalSolutions<>(new GridProblem(4, 5, true));
+        assertEquals(7, solutions.getLength());
+        assertEquals(BigInteger.valueOf(35), solutions.count());
+        var paths = solutions.stream().collect(Collectors.toList());
+        assertEquals(35, paths.size());
+        assertEquals(35, new HashSet<>(paths).size());
+        for (var path : paths) {
+            assertEquals(3, path.stream().filter("right"::equals).count());
+            assertEquals(4, path.stream().filter("down"::equals).count());
+        }
+    }
+
+    @Test
+    void count_shouldReturnOneWhenStartIsGoal() {
+        var solutions = new OptimalSolutions<>(new GridProblem(1, 1, true));
+        assertEquals(0, solutions.getLength());
+        assertEquals(BigInteger.ONE, solutions.count());
+        assertEquals(List.of(List.of()), solutions.stream().toList());
+    }
+
+    @Test
+    void count_shouldReturnZeroWhenUnsolvable() {
+        var solutions = new OptimalSolutions<>(new GridProblem(4, 5, false));
+        assertEquals(-1, solutions.getLength());
+        assertEquals(BigInteger.ZERO, solutions.count());
+        assertEquals(0, solutions.stream().count());
+    }
+
+    @Test
+    void count_shouldNotOverflow() {
+        var solutions = new OptimalSolutions<>(new LadderProblem(64));
+        assertEquals(65, solutions.getLength());
+        assertEquals(BigInteger.TWO.pow(64), solutions.count());
+        var paths = solutions.stream().limit(1000).collect(Collectors.toList());
+        assertEquals(1000, new HashSet<>(paths).size());
+    }
+
+    /**
+     * A grid of the width and height specified, where the actions move right
+     * or down, and the goal is the bottom right corner if it is reachable.
+     */
+    record GridProblem(int width, int height, boolean solvable) implements LongSearchProblem<String> {
+
+        @Override
+        public long getInitialState() {
+            return 0;
+        }
+
+        @Override
+        public boolean isGoal(long state) {
+            return solvable && state == (long) width * height - 1;
+        }
+
+        @Override
+        public List<String> getActions() {
+            return List.of("right", "down");
+        }
+
+        @Override
+        public int getLegalActions(long state) {
+            var legal = 0;
+            if (state % width < width - 1) {
+                legal |= 1;
+            }
+            if (state / width < height - 1) {
+                legal |= 2;
+            }
+            return legal;
+        }
+
+        @Override
+        public long apply(long state, int action) {
+            return action == 0 ? state + 1 : state + width;
+        }
+
+        @Override
+        public int getStateSpaceSize() {
+            return width * height;
+        }
+
+    }
+
+    /**
+     * A layered problem with a start state, then the given number of layers
+     * of two states each, and a goal state. Each state of a layer, and the
+     * start state, leads to both states of the next layer, so there are
+     * {@code 2^layers} shortest solutions.
+     */
+    record LadderProblem(int layers) implements LongSearchProblem<String> {
+
+        private long goal() {
+            return 2L * layers + 1;
+        }
+
+        @Override
+        public long getInitialState() {
+            return 0;
+        }
+
+        @Override
+        public boolean isGoal(long state) {
+            return state == goal();
+        }
+
+        @Override
+        public List<String> getActions() {
+            return List.of("upper", "lower");
+        }
+
+        @Override
+        public int getLegalActions(long state) {
+            if (state == goal()) {
+                return 0;
+            }
+            // the last layer only leads to the goal
+            return state >= 2L * layers - 1 ? 1 : 0b11;
+        }
+
+        @Override
+        public long apply(long state, int action) {
+            if (state >= 2L * layers - 1) {
+                return goal();
+            }
+            // the layer i consists of the states 2i - 1 and 2i
+            var layer = (state + 1) / 2;
+            return 2 * (layer + 1) - 1 + action;
+        }
+
+        @Override
+        public int getStateSpaceSize() {
+            return 2 * layers + 2;
+        }
+
+    }
+
+}
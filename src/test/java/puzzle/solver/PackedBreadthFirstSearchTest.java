@@ -0,0 +1,302 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.Direction;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedBreadthFirstSearchTest {
+
+    @Test
+    void search() {
+        var search = new PackedBreadthFirstSearch();
+        var solution = search.search(new TreeProblem(100, 9)).orElseThrow();
+        assertEquals(List.of("left", "right", "left"), solution.moves());
+        assertEquals(Optional.empty(), search.search(new TreeProblem(100, -1)));
+    }
+
+    @Test
+    void searchAll_shouldReturnNearestTargetFirst() {
+        var search = new PackedBreadthFirstSearch();
+        var targets = BitSet.valueOf(new long[]{1L << 9 | 1L << 4 | 1L << 1});
+        var solutions = search.searchAll(new TreeProblem(100, -1), targets);
+        assertEquals(List.of(1L, 4L, 9L), new ArrayList<>(solutions.keySet()));
+        assertEquals(List.of("left"), solutions.get(1L).moves());
+        assertEquals(List.of("left", "right"), solutions.get(4L).moves());
+        assertEquals(List.of("left", "right", "left"), solutions.get(9L).moves());
+        assertEquals(BitSet.valueOf(new long[]{1L << 9 | 1L << 4 | 1L << 1}), targets); // not modified
+    }
+
+    @Test
+    void searchAll_shouldReturnShortestSolutionOfEveryTarget() {
+        var search = new PackedBreadthFirstSearch();
+        var random = new SplittableRandom(42);
+        var initial = PackedState.pack(new PuzzleState());
+        var targets = new BitSet(PackedState.STATE_SPACE);
+        var packed = initial;
+        for (var i = 1; i <= 60; i++) {
+            var legal = PackedState.getLegalMoves(packed);
+            var directions = new ArrayList<Direction>();
+            for (var direction : Direction.values()) {
+                if ((legal & (1 << direction.ordinal())) != 0) {
+                    directions.add(direction);
+                }
+            }
+            packed = PackedState.move(packed, directions.get(random.nextInt(directions.size())));
+            if (i % 6 == 0) {
+                targets.set((int) packed);
+            }
+        }
+        var problem = new PackedPuzzleSearchProblem(initial, GoalPredicate.STANDARD);
+        var solutions = search.searchAll(problem, targets);
+        assertEquals(targets.stream().mapToObj(Long::valueOf).collect(Collectors.toSet()), solutions.keySet());
+        var previousLength = 0;
+        for (var entry : solutions.entrySet()) {
+            var solution = entry.getValue();
+            assertEquals(entry.getKey(), solution.goal());
+            assertTrue(solution.length() >= previousLength);
+            previousLength = solution.length();
+            var single = GoalPredicate.anyOf(GoalPredicate.toTargetSet(PackedState.unpack(entry.getKey())));
+            assertEquals(search.search(new PuzzleState(), single).orElseThrow().length(), solution.length());
+            var state = initial;
+            for (var direction : solution.moves()) {
+                assertTrue(PackedState.canMove(state, direction));
+                state = PackedState.move(state, direction);
+            }
+            assertEquals(entry.getKey(), state);
+        }
+    }
+
+    @Test
+    void searchAll_shouldStopOnceAllTargetsAreFound() {
+        var search = new PackedBreadthFirstSearch();
+        var expanded = new AtomicInteger();
+        var counting = new CountingProblem(new TreeProblem(4095, -1), expanded);
+        var solutions = search.searchAll(counting, BitSet.valueOf(new long[]{0b110}));
+        assertEquals(List.of(1L, 2L), new ArrayList<>(solutions.keySet()));
+        assertTrue(expanded.get() <= 3, "expanded " + expanded.get() + " states");
+    }
+
+    @Test
+    void searchAll_shouldLeaveOutUnreachableTargets() {
+        var search = new PackedBreadthFirstSearch();
+        // the state 5 would be a child of the state 2, whose children do not
+        // fit in the state space
+        var solutions = search.searchAll(new TreeProblem(6, -1), BitSet.valueOf(new long[]{0b110000}));
+        assertEquals(List.of(4L), new ArrayList<>(solutions.keySet()));
+        assertEquals(Map.of(), search.searchAll(new TreeProblem(6, -1), new BitSet()));
+    }
+
+    @Test
+    void search_shouldPublishSnapshotsOfAnyProblem() {
+        var snapshots = new ArrayList<FrontierSnapshot>();
+        try (var publisher = new SubmissionPublisher<FrontierSnapshot>(Runnable::run, 16)) {
+            publisher.subscribe(new Flow.Subscriber<>() {
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(FrontierSnapshot snapshot) {
+                    snapshots.add(snapshot);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+
+            });
+            // the states are not packed puzzle states, and the last layer is
+            // larger than the sample
+            new PackedBreadthFirstSearch(publisher).search(new TreeProblem(4095, -1));
+        }
+        assertEquals(12, snapshots.size());
+        var visited = 0;
+        for (var depth = 0; depth < snapshots.size(); depth++) {
+            var snapshot = snapshots.get(depth);
+            var layerStart = (1 << depth) - 1;
+            visited += 1 << depth;
+            assertEquals(depth, snapshot.depth());
+            assertEquals(1 << depth, snapshot.frontierSize());
+            assertEquals(visited, snapshot.visited());
+            assertEquals(Math.min(1024, 1 << depth), snapshot.samples().length);
+            for (var state : snapshot.samples()) {
+                assertTrue(state >= layerStart && state < layerStart + (1 << depth));
+            }
+        }
+    }
+
+    @Test
+    void search_shouldStopWhenInterrupted() {
+        var search = new PackedBreadthFirstSearch();
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class, () -> search.search(new TreeProblem(4095, -1)));
+            assertThrows(CancellationException.class, () -> search.searchAll(new TreeProblem(4095, -1),
+                    BitSet.valueOf(new long[]{1L << 40})));
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+        assertEquals(Optional.empty(), search.search(new TreeProblem(4095, -1)));
+    }
+
+    @Test
+    void search_shouldStopWhenFutureIsCancelled() throws InterruptedException {
+        var executor = Executors.newSingleThreadExecutor();
+        var reached = new CountDownLatch(1);
+        var finished = new CountDownLatch(1);
+        var lastDepth = new AtomicInteger();
+        var failure = new AtomicReference<Throwable>();
+        try (var publisher = new SubmissionPublisher<FrontierSnapshot>(Runnable::run, 16)) {
+            publisher.subscribe(new Flow.Subscriber<>() {
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(FrontierSnapshot snapshot) {
+                    lastDepth.set(snapshot.depth());
+                    if (snapshot.depth() == 3) {
+                        reached.countDown();
+                        try {
+                            new CountDownLatch(1).await(); // blocks until the search is cancelled
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+
+            });
+            var future = executor.submit(() -> {
+                try {
+                    new PackedBreadthFirstSearch(publisher).search(new TreeProblem(4095, -1));
+                } catch (RuntimeException e) {
+                    failure.set(e);
+                } finally {
+                    finished.countDown();
+                }
+            });
+            assertTrue(reached.await(10, TimeUnit.SECONDS));
+            future.cancel(true);
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertInstanceOf(CancellationException.class, failure.get());
+        assertEquals(3, lastDepth.get());
+    }
+
+    /**
+     * A problem that delegates to another problem and counts the states
+     * whose legal actions are queried, that is, the expanded states.
+     */
+    record CountingProblem(LongSearchProblem<String> problem, AtomicInteger expanded)
+            implements LongSearchProblem<String> {
+
+        @Override
+        public long getInitialState() {
+            return problem.getInitialState();
+        }
+
+        @Override
+        public boolean isGoal(long state) {
+            return problem.isGoal(state);
+        }
+
+        @Override
+        public List<String> getActions() {
+            return problem.getActions();
+        }
+
+        @Override
+        public int getLegalActions(long state) {
+            expanded.incrementAndGet();
+            return problem.getLegalActions(state);
+        }
+
+        @Override
+        public long apply(long state, int action) {
+            return problem.apply(state, action);
+        }
+
+        @Override
+        public int getStateSpaceSize() {
+            return problem.getStateSpaceSize();
+        }
+
+    }
+
+    /**
+     * A problem whose states are the nodes of a complete binary tree stored
+     * in an array, where the children of the state {@code n} are the states
+     * {@code 2n + 1} and {@code 2n + 2}.
+     */
+    record TreeProblem(int size, long goal) implements LongSearchProblem<String> {
+
+        @Override
+        public long getInitialState() {
+            return 0;
+        }
+
+        @Override
+        public boolean isGoal(long state) {
+            return state == goal;
+        }
+
+        @Override
+        public List<String> getActions() {
+            return List.of("left", "right");
+        }
+
+        @Override
+        public int getLegalActions(long state) {
+            return 2 * state + 2 < size ? 0b11 : 0;
+        }
+
+        @Override
+        public long apply(long state, int action) {
+            return 2 * state + 1 + action;
+        }
+
+        @Override
+        public int getStateSpaceSize() {
+            return size;
+        }
+
+    }
+
+}
@@ -0,0 +1,90 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayoutStatisticsTest {
+
+    // 2 playouts solved in 1 move, 1 in 3 moves, 1 failed, with at most 3 moves
+    PlayoutStatistics statistics = new PlayoutStatistics(new long[]{0, 2, 0, 1, 1});
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new PlayoutStatistics(new long[0]));
+        assertThrows(IllegalArgumentException.class, () -> new PlayoutStatistics(new long[1]));
+    }
+
+    @Test
+    void constructor_shouldCopyHistogram() {
+        var histogram = new long[]{1, 1};
+        var copy = new PlayoutStatistics(histogram);
+        histogram[0] = 5;
+        assertEquals(1, copy.getCount(0));
+    }
+
+    @Test
+    void getters() {
+        assertEquals(3, statistics.getMaxMoves());
+        assertEquals(4, statistics.getPlayouts());
+        assertEquals(3, statistics.getSolved());
+        assertEquals(2, statistics.getCount(1));
+        assertEquals(1, statistics.getCount(3));
+        assertEquals(0, statistics.getCount(-1));
+        assertEquals(0, statistics.getCount(4)); // the failed playouts are not counted
+        assertEquals(5.0 / 3, statistics.getMean(), 1e-12);
+    }
+
+    @Test
+    void getPercentile() {
+        assertEquals(OptionalInt.of(1), statistics.getPercentile(0)); // the shortest solution
+        assertEquals(OptionalInt.of(1), statistics.getPercentile(0.5));
+        assertEquals(OptionalInt.of(3), statistics.getPercentile(0.51));
+        assertEquals(OptionalInt.of(3), statistics.getPercentile(0.75));
+        assertEquals(OptionalInt.empty(), statistics.getPercentile(0.76)); // needs a failed playout
+        assertEquals(OptionalInt.empty(), statistics.getPercentile(1));
+    }
+
+    @Test
+    void getPercentile_shouldReturnZeroWhenStartIsGoal() {
+        var solved = new PlayoutStatistics(new long[]{5, 0, 0});
+        assertEquals(OptionalInt.of(0), solved.getPercentile(0));
+        assertEquals(OptionalInt.of(0), solved.getPercentile(1));
+    }
+
+    @Test
+    void getPercentile_shouldReturnEmptyWithoutSolvedPlayouts() {
+        assertEquals(OptionalInt.empty(), new PlayoutStatistics(new long[]{0, 0, 7}).getPercentile(0));
+        assertEquals(OptionalInt.empty(), new PlayoutStatistics(new long[]{0, 0, 0}).getPercentile(0));
+        assertEquals(OptionalInt.empty(), new PlayoutStatistics(new long[]{0, 0, 0}).getPercentile(1));
+    }
+
+    @Test
+    void getPercentile_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> statistics.getPercentile(-0.01));
+        assertThrows(IllegalArgumentException.class, () -> statistics.getPercentile(1.01));
+        assertThrows(IllegalArgumentException.class, () -> statistics.getPercentile(Double.NaN));
+    }
+
+    @Test
+    void getSolveProbability() {
+        assertEquals(0, statistics.getSolveProbability(-1));
+        assertEquals(0, statistics.getSolveProbability(0));
+        assertEquals(0.5, statistics.getSolveProbability(1));
+        assertEquals(0.5, statistics.getSolveProbability(2));
+        assertEquals(0.75, statistics.getSolveProbability(3));
+        assertEquals(0.75, statistics.getSolveProbability(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void getSolveProbability_shouldReturnNaNWithoutPlayouts() {
+        var empty = new PlayoutStatistics(new long[]{0, 0, 0});
+        assertEquals(0, empty.getPlayouts());
+        assertTrue(Double.isNaN(empty.getSolveProbability(1)));
+        assertTrue(Double.isNaN(empty.getMean()));
+        assertEquals("playouts=0, solved=0, mean=NaN, median=-, p90=-", empty.toString());
+    }
+
+}
@@ -0,0 +1,105 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.PackedState;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuzzleGeneratorTest {
+
+    static final DistanceDatabase DATABASE = DistanceDatabase.load();
+
+    PuzzleGenerator generator = new PuzzleGenerator(DATABASE);
+
+    @Test
+    void count() {
+        var solvable = 0;
+        var maxDistance = 0;
+        var atTen = 0;
+        for (var packed = 0; packed < PackedState.STATE_SPACE; packed++) {
+            var distance = DATABASE.getDistance(packed);
+            if (distance != DistanceDatabase.UNREACHABLE) {
+                solvable++;
+                maxDistance = Math.max(maxDistance, distance);
+                if (distance == 10) {
+                    atTen++;
+                }
+            }
+        }
+        assertEquals(maxDistance, generator.getMaxDistance());
+        assertEquals(solvable, generator.count(0, generator.getMaxDistance()));
+        assertEquals(solvable, generator.count(-5, Integer.MAX_VALUE));
+        assertEquals(atTen, generator.count(10, 10));
+        assertEquals(0, generator.count(10, 9));
+        assertEquals(0, generator.count(generator.getMaxDistance() + 1, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void generate_shouldReturnStateOfExactDistance() {
+        for (var distance = 0; distance <= generator.getMaxDistance(); distance++) {
+            for (var seed = 0L; seed < 5; seed++) {
+                var state = generator.generate(distance, seed);
+                assertEquals(distance, DATABASE.getDistance(state));
+            }
+        }
+    }
+
+    @Test
+    void generate_shouldBeReproducible() {
+        for (var seed = 0L; seed < 20; seed++) {
+            assertEquals(generator.generate(12, seed), generator.generate(12, seed));
+            assertEquals(generator.generate(12, seed), new PuzzleGenerator(DATABASE).generate(12, seed));
+        }
+        assertEquals(generator.generate(3, 12, new SplittableRandom(7)),
+                generator.generate(3, 12, new SplittableRandom(7)));
+    }
+
+    @Test
+    void generate_shouldReturnStateWithinRange() {
+        var random = new SplittableRandom(0);
+        for (var i = 0; i < 1000; i++) {
+            var distance = DATABASE.getDistance(generator.generate(5, 8, random));
+            assertTrue(distance >= 5 && distance <= 8, "distance " + distance);
+        }
+    }
+
+    @Test
+    void generate_shouldThrowIllegalArgumentExceptionForEmptyRange() {
+        var random = new SplittableRandom(0);
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(8, 5, random));
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(-3, -1, random));
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(generator.getMaxDistance() + 1, 0L));
+    }
+
+    @Test
+    void generateDistinct() {
+        var states = generator.generateDistinct(200, 10, 14, 42);
+        assertEquals(200, states.length);
+        assertEquals(200, Arrays.stream(states).distinct().count());
+        for (var packed : states) {
+            var distance = DATABASE.getDistance(packed);
+            assertTrue(distance >= 10 && distance <= 14, "distance " + distance);
+        }
+        assertArrayEquals(states, generator.generateDistinct(200, 10, 14, 42));
+    }
+
+    @Test
+    void generateDistinct_shouldReturnWholeRange() {
+        var count = generator.count(20, 22);
+        var states = generator.generateDistinct(count, 20, 22, 1);
+        assertEquals(count, Arrays.stream(states).distinct().count());
+        assertEquals(0, generator.generateDistinct(0, 20, 22, 1).length);
+    }
+
+    @Test
+    void generateDistinct_shouldThrowIllegalArgumentException() {
+        var count = generator.count(20, 22);
+        assertThrows(IllegalArgumentException.class, () -> generator.generateDistinct(count + 1, 20, 22, 1));
+        assertThrows(IllegalArgumentException.class, () -> generator.generateDistinct(-1, 20, 22, 1));
+        assertThrows(IllegalArgumentException.class, () -> generator.generateDistinct(1, 22, 20, 1));
+    }
+
+}
@@ -0,0 +1,69 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.PuzzleState;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomPlayoutAnalyzerTest {
+
+    static final int MAX_MOVES = 200;
+
+    static final long PLAYOUTS = 10L * RandomPlayoutAnalyzer.SEQUENTIAL_THRESHOLD + 123; // several uneven tasks
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new RandomPlayoutAnalyzer(-1));
+        assertThrows(IllegalArgumentException.class, () -> new RandomPlayoutAnalyzer(Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> new RandomPlayoutAnalyzer(Integer.MAX_VALUE - 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RandomPlayoutAnalyzer(RandomPlayoutAnalyzer.MAX_MOVES_LIMIT + 1));
+    }
+
+    @Test
+    void analyze_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new RandomPlayoutAnalyzer(10).analyze(new PuzzleState(), -1, 0));
+    }
+
+    @Test
+    void analyze_shouldNotDependOnParallelism() {
+        var single = new ForkJoinPool(1);
+        var several = new ForkJoinPool(4);
+        try {
+            var expected = new RandomPlayoutAnalyzer(MAX_MOVES, single).analyze(new PuzzleState(), PLAYOUTS, 42);
+            var actual = new RandomPlayoutAnalyzer(MAX_MOVES, several).analyze(new PuzzleState(), PLAYOUTS, 42);
+            assertEquals(PLAYOUTS, expected.getPlayouts());
+            assertSameHistogram(expected, actual);
+            assertSameHistogram(expected, new RandomPlayoutAnalyzer(MAX_MOVES).analyze(new PuzzleState(), PLAYOUTS, 42));
+            var other = new RandomPlayoutAnalyzer(MAX_MOVES, several).analyze(new PuzzleState(), PLAYOUTS, 43);
+            assertNotEquals(expected.toString(), other.toString()); // the seed is actually used
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    void analyze() {
+        var statistics = new RandomPlayoutAnalyzer(MAX_MOVES).analyze(new PuzzleState(), 1000, 0);
+        assertEquals(1000, statistics.getPlayouts());
+        assertEquals(MAX_MOVES, statistics.getMaxMoves());
+        for (var moves = 0; moves < 24; moves++) {
+            assertEquals(0, statistics.getCount(moves)); // no playout beats the optimal solution
+        }
+        assertEquals(0, new RandomPlayoutAnalyzer(0).analyze(new PuzzleState(), 1000, 0).getSolved());
+        assertEquals(0, new RandomPlayoutAnalyzer(MAX_MOVES).analyze(new PuzzleState(), 0, 0).getPlayouts());
+    }
+
+    private static void assertSameHistogram(PlayoutStatistics expected, PlayoutStatistics actual) {
+        assertEquals(expected.getMaxMoves(), actual.getMaxMoves());
+        assertEquals(expected.getPlayouts(), actual.getPlayouts());
+        assertEquals(expected.getSolved(), actual.getSolved());
+        for (var moves = 0; moves <= expected.getMaxMoves(); moves++) {
+            assertEquals(expected.getCount(moves), actual.getCount(moves), "moves " + moves);
+        }
+    }
+
+}
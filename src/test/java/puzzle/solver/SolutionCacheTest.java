@@ -0,0 +1,196 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import puzzle.model.Direction;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolutionCacheTest {
+
+    @TempDir
+    Path directory;
+
+    List<Direction> solution1 = List.of(Direction.UP, Direction.LEFT);
+
+    List<Direction> solution2 = List.of(Direction.RIGHT, Direction.DOWN);
+
+    // Room for three entries of two moves each, with 64 bytes of overhead per entry
+    long maxBytes = 3 * (64 + 2);
+
+    // Magic number, format version, board size and rules fingerprint
+    static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedEntries() {
+        var cache = new SolutionCache(maxBytes);
+        cache.put(1, solution1);
+        cache.put(2, solution1);
+        cache.put(3, solution1);
+        assertEquals(Optional.of(solution1), cache.get(1)); // 2 becomes the least recently used entry
+        cache.put(4, solution2);
+        assertEquals(Optional.empty(), cache.get(2));
+        assertEquals(Optional.of(solution1), cache.get(1));
+        assertEquals(Optional.of(solution1), cache.get(3));
+        assertEquals(Optional.of(solution2), cache.get(4));
+        assertEquals(3, cache.size());
+        assertEquals(maxBytes, cache.getBytes());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(4, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void put_shouldThrowIllegalStateExceptionAfterClose() throws IOException {
+        var cache = new SolutionCache(maxBytes, directory.resolve("cache"));
+        cache.close();
+        assertThrows(IllegalStateException.class, () -> cache.put(1, solution1));
+    }
+
+    @Test
+    void persistence() throws IOException {
+        var file = directory.resolve("cache");
+        try (var cache = new SolutionCache(maxBytes, file)) {
+            cache.put(1, solution1);
+            cache.put(2, solution2);
+            cache.put(2, solution2); // unchanged, not appended again
+        }
+        var size = Files.size(file);
+        assertEquals(HEADER_SIZE + 2 * (Long.BYTES + Short.BYTES + 2), size);
+        try (var cache = new SolutionCache(maxBytes, file)) {
+            assertEquals(Optional.of(solution1), cache.get(1));
+            assertEquals(Optional.of(solution2), cache.get(2));
+            assertEquals(0, cache.getEvictionCount());
+        }
+    }
+
+    @Test
+    void persistence_shouldCompactFileOnLoad() throws IOException {
+        var file = directory.resolve("cache");
+        try (var cache = new SolutionCache(10 * maxBytes, file)) {
+            for (var packed = 0; packed < 10; packed++) {
+                cache.put(packed, solution1);
+            }
+        }
+        try (var cache = new SolutionCache(maxBytes, file)) {
+            assertEquals(3, cache.size());
+            assertEquals(0, cache.getEvictionCount());
+        }
+        assertEquals(HEADER_SIZE + 3 * (Long.BYTES + Short.BYTES + 2), Files.size(file));
+        try (var cache = new SolutionCache(maxBytes, file)) {
+            assertEquals(Optional.of(solution1), cache.get(9));
+            assertEquals(Optional.empty(), cache.get(6));
+        }
+    }
+
+    @Test
+    void persistence_shouldDiscardFileOfOtherRules() throws IOException {
+        var file = directory.resolve("cache");
+        try (var cache = new SolutionCache(maxBytes, file)) {
+            cache.put(1, solution1);
+        }
+        var bytes = Files.readAllBytes(file);
+        bytes[3 * Integer.BYTES] ^= 1; // the rules fingerprint
+        Files.write(file, bytes);
+        try (var cache = new SolutionCache(maxBytes, file)) {
+            assertEquals(0, cache.size());
+        }
+        assertEquals(HEADER_SIZE, Files.size(file));
+    }
+
+    @Test
+    void persistence_shouldDiscardFileWithoutHeader() throws IOException {
+        var file = directory.resolve("cache");
+        Files.write(file, new byte[] {0, 0});
+        try (var cache = new SolutionCache(maxBytes, file)) {
+            assertEquals(0, cache.size());
+            cache.put(1, solution1);
+        }
+        try (var cache = new SolutionCache(maxBytes, file)) {
+            assertEquals(Optional.of(solution1), cache.get(1));
+        }
+    }
+
+    @Test
+    void persistence_shouldRestoreSolutionsAfterConcurrentPuts() throws Exception {
+        var file = directory.resolve("cache");
+        var threads = 8;
+        var keys = 4;
+        var executor = Executors.newFixedThreadPool(threads);
+        var cached = new ArrayList<Optional<List<Direction>>>();
+        try (var cache = new SolutionCache(1 << 20, file)) {
+            var tasks = new ArrayList<Callable<Void>>();
+            for (var t = 0; t < threads; t++) {
+                var solution = Collections.nCopies(t + 1, Direction.UP); // a different solution per thread
+                tasks.add(() -> {
+                    for (var i = 0; i < 20000; i++) {
+                        cache.put(i % keys, solution);
+                    }
+                    return null;
+                });
+            }
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+            for (var packed = 0; packed < keys; packed++) {
+                cached.add(cache.get(packed));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        try (var cache = new SolutionCache(1 << 20, file)) {
+            for (var packed = 0; packed < keys; packed++) {
+                assertEquals(cached.get(packed), cache.get(packed));
+            }
+        }
+    }
+
+    @Test
+    void computeIfAbsent_concurrent() throws InterruptedException, ExecutionException {
+        var cache = new SolutionCache(1 << 20);
+        var solverCalls = new AtomicInteger();
+        var threads = 8;
+        var callsPerThread = 1000;
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var tasks = new ArrayList<Callable<Void>>();
+            for (var t = 0; t < threads; t++) {
+                tasks.add(() -> {
+                    for (var i = 0; i < callsPerThread; i++) {
+                        var packed = i % 50;
+                        var solution = cache.computeIfAbsent(packed, state -> {
+                            solverCalls.incrementAndGet();
+                            return Optional.of(state % 2 == 0 ? solution1 : solution2);
+                        });
+                        assertEquals(Optional.of(packed % 2 == 0 ? solution1 : solution2), solution);
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(50, cache.size());
+        assertEquals(threads * callsPerThread, cache.getHitCount() + cache.getMissCount());
+        assertEquals(solverCalls.get(), cache.getMissCount());
+        assertTrue(solverCalls.get() >= 50);
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+}
@@ -0,0 +1,83 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverServerTest {
+
+    static final String INITIAL_STATE = "[(0,0),(2,0),(1,1),(0,2)]";
+
+    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    HttpRequest solveRequest(int port) {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/solve"))
+                .POST(HttpRequest.BodyPublishers.ofString(INITIAL_STATE + "\n"))
+                .build();
+    }
+
+    @Test
+    void solve() throws IOException, InterruptedException {
+        try (var server = new SolverServer(DistanceDatabase.load(), 0)) {
+            var response = client.send(solveRequest(server.getPort()), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().startsWith("24 "));
+        }
+    }
+
+    @Test
+    void solve_shouldRejectRequestsWhenQueueIsFull() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var extra = 20;
+        try (var server = new SolverServer(packed -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "0";
+        }, 0, SolverServer.DEFAULT_QUEUE_CAPACITY, Runtime.getRuntime().availableProcessors())) {
+            // The first request is taken by the solver thread, which blocks
+            var first = client.sendAsync(solveRequest(server.getPort()), HttpResponse.BodyHandlers.ofString());
+            assertTrue(started.await(30, TimeUnit.SECONDS));
+            var responses = new ArrayList<CompletableFuture<HttpResponse<String>>>();
+            for (var i = 0; i < SolverServer.DEFAULT_QUEUE_CAPACITY + extra; i++) {
+                responses.add(client.sendAsync(solveRequest(server.getPort()), HttpResponse.BodyHandlers.ofString()));
+            }
+            var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (server.getRejectedCount() < extra && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(extra, server.getRejectedCount());
+            release.countDown();
+            var accepted = 0;
+            var rejected = 0;
+            for (var future : responses) {
+                var response = future.get(30, TimeUnit.SECONDS);
+                if (response.statusCode() == 503) {
+                    assertTrue(response.headers().firstValue("Retry-After").isPresent());
+                    rejected++;
+                } else {
+                    assertEquals(200, response.statusCode());
+                    accepted++;
+                }
+            }
+            assertEquals(200, first.get(30, TimeUnit.SECONDS).statusCode());
+            assertEquals(SolverServer.DEFAULT_QUEUE_CAPACITY, accepted);
+            assertEquals(extra, rejected);
+        }
+    }
+
+}
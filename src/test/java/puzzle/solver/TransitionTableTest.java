@@ -0,0 +1,88 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.Direction;
+import puzzle.model.PackedState;
+import puzzle.util.EngineFuzzer;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransitionTableTest {
+
+    TransitionTable table = TransitionTable.getDefault();
+
+    EngineFuzzer fuzzer = new EngineFuzzer(EngineFuzzer.packedEngine(), new TableEngine(table));
+
+    @Test
+    void getDefault() {
+        assertSame(table, TransitionTable.getDefault());
+    }
+
+    @Test
+    void sweep() {
+        assertEquals(Optional.empty(), fuzzer.sweep());
+    }
+
+    @Test
+    void fuzz() {
+        assertEquals(Optional.empty(), fuzzer.fuzz(1000, 100, 42));
+    }
+
+    @Test
+    void sweep_shouldAcceptComputedTable() {
+        var computed = new EngineFuzzer(EngineFuzzer.packedEngine(), new TableEngine(TransitionTable.compute()));
+        assertEquals(Optional.empty(), computed.sweep());
+    }
+
+    @Test
+    void getLegalMoves() {
+        for (var packed = 0; packed < PackedState.STATE_SPACE; packed++) {
+            if (PackedState.isValid(packed)) {
+                assertEquals(PackedState.getLegalMoves(packed), table.getLegalMoves(packed));
+            }
+        }
+    }
+
+    /**
+     * An engine that looks up the moves in a transition table.
+     */
+    static class TableEngine implements EngineFuzzer.Engine {
+
+        private final TransitionTable table;
+
+        private long state;
+
+        TableEngine(TransitionTable table) {
+            this.table = table;
+        }
+
+        @Override
+        public String getName() {
+            return "TransitionTable";
+        }
+
+        @Override
+        public void reset(long packed) {
+            state = packed;
+        }
+
+        @Override
+        public boolean canMove(Direction direction) {
+            return table.getSuccessor(state, direction) != TransitionTable.NONE;
+        }
+
+        @Override
+        public void move(Direction direction) {
+            state = table.getSuccessor(state, direction);
+        }
+
+        @Override
+        public long getState() {
+            return state;
+        }
+
+    }
+
+}
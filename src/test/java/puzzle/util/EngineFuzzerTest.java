@@ -0,0 +1,87 @@
+package puzzle.util;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.Direction;
+import puzzle.model.PuzzleState;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EngineFuzzerTest {
+
+    EngineFuzzer fuzzer = new EngineFuzzer(EngineFuzzer.referenceEngine(), EngineFuzzer.packedEngine());
+
+    @Test
+    void sweep() {
+        assertEquals(Optional.empty(), fuzzer.sweep());
+    }
+
+    @Test
+    void fuzz() {
+        assertEquals(Optional.empty(), fuzzer.fuzz(1000, 100, 42));
+    }
+
+    @Test
+    void fuzz_shouldReportMinimizedDivergence() {
+        var faulty = new EngineFuzzer(EngineFuzzer.referenceEngine(), new FaultyEngine());
+        var divergence = faulty.fuzz(1000, 100, 42).orElseThrow();
+        assertEquals(Direction.UP, divergence.moves().get(divergence.moves().size() - 1));
+        assertTrue(faulty.findDivergence(divergence.start(), divergence.moves()).isPresent());
+        for (var i = 0; i < divergence.moves().size() - 1; i++) {
+            var moves = new ArrayList<>(divergence.moves());
+            moves.remove(i);
+            assertEquals(Optional.empty(), faulty.findDivergence(divergence.start(), moves));
+        }
+    }
+
+    @Test
+    void measureThroughput() {
+        assertTrue(fuzzer.measureThroughput(EngineFuzzer.packedEngine(), 10, 10, 0) > 0);
+    }
+
+    /**
+     * An engine that forgets to carry the shoes when moving up.
+     */
+    static class FaultyEngine implements EngineFuzzer.Engine {
+
+        private final EngineFuzzer.Engine packed = EngineFuzzer.packedEngine();
+
+        private long state;
+
+        @Override
+        public String getName() {
+            return "Faulty";
+        }
+
+        @Override
+        public void reset(long packed) {
+            state = packed;
+        }
+
+        @Override
+        public boolean canMove(Direction direction) {
+            packed.reset(state);
+            return packed.canMove(direction);
+        }
+
+        @Override
+        public void move(Direction direction) {
+            if (direction == Direction.UP) {
+                state -= PuzzleState.BOARD_SIZE;
+            } else {
+                packed.reset(state);
+                packed.move(direction);
+                state = packed.getState();
+            }
+        }
+
+        @Override
+        public long getState() {
+            return state;
+        }
+
+    }
+
+}
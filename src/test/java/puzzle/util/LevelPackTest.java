@@ -0,0 +1,64 @@
+package puzzle.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelPackTest {
+
+    @TempDir
+    Path directory;
+
+    PuzzleState state1 = new PuzzleState(); // the original initial state
+
+    PuzzleState state2 = new PuzzleState(new Position(1, 1),
+            new Position(2, 0),
+            new Position(1, 1),
+            new Position(0, 2)); // a non-goal state
+
+    @Test
+    void parse() {
+        assertEquals(state1, LevelPack.parse(state1.toString()));
+        assertEquals(state2, LevelPack.parse(state2.toString()));
+    }
+
+    @Test
+    void parse_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> LevelPack.parse("[(0,0),(2,0),(1,1)]"));
+        assertThrows(IllegalArgumentException.class, () -> LevelPack.parse("[(0,0),(2,0),(1,1),(1,1)]"));
+        assertThrows(IllegalArgumentException.class, () -> LevelPack.parse("[(0,0),(2,0),(1,1),(3,0)]"));
+    }
+
+    @Test
+    void readTextAndWrite() throws IOException {
+        var text = directory.resolve("levels.txt");
+        Files.writeString(text, String.format("# levels%n%s%n%n%s%n", state1, state2));
+        var binary = directory.resolve("levels.bin");
+        try (var states = LevelPack.readText(text)) {
+            LevelPack.write(binary, states.iterator());
+        }
+        try (var pack = LevelPack.open(binary)) {
+            assertEquals(2, pack.size());
+            assertEquals(state2, pack.get(1));
+            assertEquals(state1, pack.get(0));
+            assertEquals(List.of(state1, state2), pack.stream().toList());
+            assertThrows(IndexOutOfBoundsException.class, () -> pack.get(2));
+        }
+    }
+
+    @Test
+    void open_shouldThrowIOException() throws IOException {
+        var file = directory.resolve("invalid.bin");
+        Files.writeString(file, "Hello, World!");
+        assertThrows(IOException.class, () -> LevelPack.open(file));
+    }
+
+}
@@ -0,0 +1,92 @@
+package puzzle.util;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.Direction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveJournalTest {
+
+    record Move(Direction direction, long state) {
+    }
+
+    static class ListSink implements MoveJournal.Sink {
+
+        final List<Move> moves = new ArrayList<>();
+
+        boolean closed;
+
+        @Override
+        public void write(long timestamp, Direction direction, long state) {
+            moves.add(new Move(direction, state));
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+    }
+
+    @Test
+    void record_shouldPreserveOrder() {
+        var sink = new ListSink();
+        var journal = new MoveJournal(1024, sink);
+        var expected = new ArrayList<Move>();
+        for (var i = 0; i < 1000; i++) {
+            var move = new Move(Direction.values()[i % 4], i);
+            expected.add(move);
+            journal.record(move.direction(), move.state());
+        }
+        journal.close();
+        assertEquals(0, journal.getDroppedCount());
+        assertEquals(expected, sink.moves);
+    }
+
+    @Test
+    void record_shouldDropMovesWhenFull() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        var sink = new ListSink() {
+            @Override
+            public void write(long timestamp, Direction direction, long state) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.write(timestamp, direction, state);
+            }
+        };
+        var journal = new MoveJournal(4, sink);
+        for (var i = 0; i < 6; i++) {
+            journal.record(Direction.UP, i);
+        }
+        assertEquals(2, journal.getDroppedCount());
+        release.countDown();
+        journal.close();
+        assertEquals(List.of(new Move(Direction.UP, 0), new Move(Direction.UP, 1), new Move(Direction.UP, 2),
+                new Move(Direction.UP, 3)), sink.moves);
+    }
+
+    @Test
+    void close_shouldDrainPendingMovesAndCloseSink() {
+        var sink = new ListSink();
+        var journal = new MoveJournal(1024, sink);
+        for (var i = 0; i < 500; i++) {
+            journal.record(Direction.LEFT, i);
+        }
+        journal.close();
+        assertEquals(500, sink.moves.size());
+        assertTrue(sink.closed);
+    }
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new MoveJournal(3, new ListSink()));
+    }
+
+}